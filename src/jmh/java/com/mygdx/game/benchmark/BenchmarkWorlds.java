@@ -0,0 +1,48 @@
+package com.mygdx.game.benchmark;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+
+import lombok.experimental.UtilityClass;
+
+/** Builds worlds for the benchmarks. Nothing in here needs a GL context. */
+@UtilityClass
+public class BenchmarkWorlds {
+  public static final Type[] SUPPORTED_TYPES = {
+    Type.QUBE, Type.SLOPE_HALF, Type.PILLAR_CENTER, Type.PILLAR_CORNER
+  };
+
+  public static BlockProperties properties(Type type, BlockOrientation orientation) {
+    return new BlockProperties(type, orientation, EnumSet.allOf(Side.class), 0, 0.5f);
+  }
+
+  /**
+   * Creates a world with the default floor and fills every cell above it with the given
+   * probability, either with cubes only or with all supported shapes.
+   */
+  public static World create(int w, int h, int d, float fill, boolean mixedShapes, long seed) {
+    var world = World.createDemo(w, h, d);
+    var random = new Random(seed);
+    var orientations = BlockOrientation.values();
+    for (int y = 1; y < h; y++) {
+      for (int z = 0; z < d; z++) {
+        for (int x = 0; x < w; x++) {
+          if (random.nextFloat() >= fill) {
+            continue;
+          }
+          Type type =
+              mixedShapes ? SUPPORTED_TYPES[random.nextInt(SUPPORTED_TYPES.length)] : Type.QUBE;
+          var orientation = orientations[random.nextInt(orientations.length)];
+          world.setBlockAt(x, y, z, properties(type, orientation));
+        }
+      }
+    }
+    return world;
+  }
+}
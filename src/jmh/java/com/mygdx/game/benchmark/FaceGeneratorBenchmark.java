@@ -0,0 +1,53 @@
+package com.mygdx.game.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Face;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.PackedShape;
+
+/** Generating the faces of every supported {@link Type}, uncached and through the face cache. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaceGeneratorBenchmark {
+
+  @Param({"QUBE", "SLOPE_HALF", "PILLAR_CENTER", "PILLAR_CORNER"})
+  Type type;
+
+  private BlockProperties properties;
+
+  @Setup
+  public void setUp() {
+    properties = BenchmarkWorlds.properties(type, BlockOrientation.EAST);
+  }
+
+  @Benchmark
+  public List<Face> generate() {
+    return FaceGenerator.get(properties);
+  }
+
+  @Benchmark
+  public PackedShape cached() {
+    return FaceGenerator.getPacked(properties);
+  }
+}
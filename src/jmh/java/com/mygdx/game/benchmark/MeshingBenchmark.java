@@ -0,0 +1,95 @@
+package com.mygdx.game.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import com.mygdx.game.next.shapes.PackedShape;
+import com.mygdx.game.next.world.AtlasLayout;
+import com.mygdx.game.next.world.Chunk;
+import com.mygdx.game.next.world.ChunkMeshData;
+import com.mygdx.game.next.world.ChunkMesher;
+import com.mygdx.game.next.world.ChunkSnapshot;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * Packing block vertices into a {@link MeshBuffer} and building the CPU side of a whole chunk mesh.
+ * Uploading to the GPU is not part of it, so it runs headless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshingBenchmark {
+
+  @Param({"0.3", "1.0"})
+  float fill;
+
+  @Param({"false", "true"})
+  boolean mixedShapes;
+
+  private final MeshBuffer buffer = new MeshBuffer();
+  private final ChunkMesher mesher = new ChunkMesher();
+  private PackedShape shape;
+  private World world;
+  private ChunkSnapshot snapshot;
+
+  @Setup
+  public void setUp() {
+    shape = FaceGenerator.getPacked(BenchmarkWorlds.properties(Type.QUBE, BlockOrientation.NORTH));
+    int size = Chunk.SIZE * 3;
+    world = BenchmarkWorlds.create(size, size, size, fill, mixedShapes, 7);
+    snapshot = new ChunkSnapshot(world.getChunk(1, 1, 1), world);
+  }
+
+  @TearDown
+  public void tearDown() {
+    world.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(Chunk.VOLUME)
+  public MeshBuffer packVertices() {
+    buffer.clear();
+    for (int i = 0; i < Chunk.VOLUME; i++) {
+      if (buffer.getVertexCount() + shape.vertexCount() > MeshBuffer.MAX_VERTICES) {
+        buffer.clear();
+      }
+      int x = i & Chunk.MASK;
+      int y = i >> (Chunk.SHIFT * 2);
+      int z = (i >> Chunk.SHIFT) & Chunk.MASK;
+      buffer.add(shape, x * S, y * S, z * S);
+    }
+    return buffer;
+  }
+
+  @Benchmark
+  public ChunkMeshData buildChunk() {
+    return mesher.build(snapshot, AtlasLayout.UNPACKED);
+  }
+
+  @Benchmark
+  public ChunkMeshData snapshotAndBuildChunk() {
+    return mesher.build(new ChunkSnapshot(snapshot.getChunk(), world), AtlasLayout.UNPACKED);
+  }
+}
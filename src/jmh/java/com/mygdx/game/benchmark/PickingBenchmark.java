@@ -0,0 +1,91 @@
+package com.mygdx.game.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.Block;
+import com.mygdx.game.next.raycast.BlockCaster;
+import com.mygdx.game.next.raycast.RayHit;
+
+/**
+ * {@link BlockCaster#cast(Ray, RayHit)} for a batch of rays looking down into worlds of different
+ * sizes, with cubes only or with slopes and pillars that need the narrow phase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PickingBenchmark {
+  private static final int RAYS = 1024;
+
+  @Param({"16", "64", "256"})
+  int size;
+
+  @Param({"16"})
+  int height;
+
+  @Param({"0.05", "0.3"})
+  float fill;
+
+  @Param({"false", "true"})
+  boolean mixedShapes;
+
+  private World world;
+  private BlockCaster caster;
+  private final RayHit hit = new RayHit();
+  private final Ray[] rays = new Ray[RAYS];
+
+  @Setup
+  public void setUp() {
+    world = BenchmarkWorlds.create(size, height, size, fill, mixedShapes, 42);
+    caster = new BlockCaster(world);
+
+    var random = new Random(42);
+    float extent = size * Block.S;
+    var origin = new Vector3(-extent * 0.25f, height * Block.S * 2, -extent * 0.25f);
+    for (int i = 0; i < RAYS; i++) {
+      var target =
+          new Vector3(
+              random.nextFloat() * extent,
+              random.nextFloat() * height * Block.S,
+              random.nextFloat() * extent);
+      rays[i] = new Ray(origin, target.sub(origin).nor());
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    world.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RAYS)
+  public int cast() {
+    int count = 0;
+    for (Ray ray : rays) {
+      if (caster.cast(ray, hit)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,109 @@
+package com.mygdx.game.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Type;
+
+/** {@link World#getBlockAt} and {@link World#setBlockAt} with cache friendly and random access. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldAccessBenchmark {
+  private static final int ACCESSES = 4096;
+
+  @Param({"64", "256"})
+  int size;
+
+  @Param({"32"})
+  int height;
+
+  private World world;
+  /** Written in turns, so every set changes the block instead of storing what is there. */
+  private final BlockProperties[] blocks = new BlockProperties[2];
+  private int invocation;
+  private final int[] sequential = new int[ACCESSES * 3];
+  private final int[] random = new int[ACCESSES * 3];
+
+  @Setup
+  public void setUp() {
+    world = BenchmarkWorlds.create(size, height, size, 0.3f, false, 42);
+    blocks[0] = BenchmarkWorlds.properties(Type.QUBE, BlockOrientation.NORTH);
+    blocks[1] = BenchmarkWorlds.properties(Type.SLOPE_HALF, BlockOrientation.EAST);
+
+    var rnd = new Random(42);
+    for (int i = 0; i < ACCESSES; i++) {
+      // x is the fastest changing coordinate, like a row by row sweep.
+      sequential[i * 3] = i % size;
+      sequential[i * 3 + 1] = (i / (size * size)) % height;
+      sequential[i * 3 + 2] = (i / size) % size;
+
+      random[i * 3] = rnd.nextInt(size);
+      random[i * 3 + 1] = rnd.nextInt(height);
+      random[i * 3 + 2] = rnd.nextInt(size);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    world.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ACCESSES)
+  public void getBlockAtSequential(Blackhole blackhole) {
+    get(sequential, blackhole);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ACCESSES)
+  public void getBlockAtRandom(Blackhole blackhole) {
+    get(random, blackhole);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ACCESSES)
+  public void setBlockAtSequential() {
+    set(sequential);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ACCESSES)
+  public void setBlockAtRandom() {
+    set(random);
+  }
+
+  private void get(int[] coords, Blackhole blackhole) {
+    for (int i = 0; i < coords.length; i += 3) {
+      blackhole.consume(world.getBlockAt(coords[i], coords[i + 1], coords[i + 2]));
+    }
+  }
+
+  private void set(int[] coords) {
+    var block = blocks[invocation++ & 1];
+    for (int i = 0; i < coords.length; i += 3) {
+      world.setBlockAt(coords[i], coords[i + 1], coords[i + 2], block);
+    }
+  }
+}
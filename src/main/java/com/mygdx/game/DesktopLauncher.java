@@ -1,17 +1,26 @@
 package com.mygdx.game;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM
 // argument
 public class DesktopLauncher {
+  /** Draws the world with the instanced renderer, which needs a GL 3.0 context. */
+  private static final String INSTANCED_OPTION = "--instanced";
+
   public static void main(String[] arg) {
+    boolean instanced = Arrays.asList(arg).contains(INSTANCED_OPTION);
     Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
     config.setForegroundFPS(60);
     config.setIdleFPS(10);
     config.setTitle("EditorTechdemo");
     config.setWindowedMode(1280, 720);
-    new Lwjgl3Application(new MyGdxGame(), config);
+    if (instanced) {
+      config.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+    }
+    new Lwjgl3Application(new MyGdxGame(instanced), config);
   }
 }
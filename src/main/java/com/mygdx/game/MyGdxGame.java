@@ -20,6 +20,7 @@ import com.badlogic.gdx.utils.ScreenUtils;
 import com.mygdx.game.next.GameBox;
 import com.mygdx.game.next.blocks.Block;
 import com.mygdx.game.next.editor.BlockSelectionChangedEvent;
+import com.mygdx.game.next.editor.EditHistory;
 import com.mygdx.game.next.editor.SelectionModifyInputHandler;
 import com.mygdx.game.next.editor.SelectionOpenInputHandler;
 import com.mygdx.game.next.editor.SelectionThingy;
@@ -39,6 +40,12 @@ public class MyGdxGame extends ApplicationAdapter {
   private SelectionThingy selectionThingy;
   private EditorUi editorUi;
   private GameBox gameBox;
+  /** Whether the world is drawn with instancing, see {@link GameBox}. */
+  private final boolean instanced;
+
+  public MyGdxGame(boolean instanced) {
+    this.instanced = instanced;
+  }
 
   @Override
   public void create() {
@@ -53,7 +60,8 @@ public class MyGdxGame extends ApplicationAdapter {
             modelBatch -> {
               Gdx.gl.glClear(GL20.GL_DEPTH_BUFFER_BIT);
               modelBatch.render(selectionThingy);
-            });
+            },
+            instanced);
     gameBox.create();
 
     // camController = new CameraInputController(cam);
@@ -66,7 +74,9 @@ public class MyGdxGame extends ApplicationAdapter {
     var selectionOpenInputHandler = new SelectionOpenInputHandler(selectionThingy, world, camera);
     var selectionModifyInputHandler =
         new SelectionModifyInputHandler(selectionThingy, world, camera);
-    var worldModifier = new WorldModifier(world, selectionThingy);
+    var worldModifier =
+        new WorldModifier(
+            world, selectionThingy, new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES));
 
     stuffToDispose.add(world);
 
@@ -88,7 +98,7 @@ public class MyGdxGame extends ApplicationAdapter {
     font = new BitmapFont();
     stuffToDispose.add(font);
 
-    editorUi = new EditorUi(selectionMagic, world);
+    editorUi = new EditorUi(selectionMagic, world, gameBox.getTextureRegistry());
     editorUi.create();
 
     Gdx.input.setInputProcessor(
@@ -114,6 +124,20 @@ public class MyGdxGame extends ApplicationAdapter {
     batch.begin();
     // batch.draw(img, 0, 0, 100, 100);
     // font.draw(batch, "Test", 100, 100);
+    var renderer = gameBox.getRenderer();
+    var instancedRenderer = gameBox.getInstancedRenderer();
+    String stats =
+        instancedRenderer != null
+            ? "Shapes: "
+                + instancedRenderer.getShapeCount()
+                + ", blocks: "
+                + instancedRenderer.getInstanceCount()
+            : "Chunks: "
+                + renderer.getVisibleChunks()
+                + " visible, "
+                + renderer.getCulledChunks()
+                + " culled";
+    font.draw(batch, stats, 10, 20);
     batch.end();
 
     editorUi.render();
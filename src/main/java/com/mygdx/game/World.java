@@ -1,108 +1,653 @@
 package com.mygdx.game;
 
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
 
-import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.RenderableProvider;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
-import com.badlogic.gdx.utils.IdentityMap;
-import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.mygdx.game.next.blocks.Block;
 import com.mygdx.game.next.blocks.BlockOrientation;
 import com.mygdx.game.next.blocks.BlockProperties;
 import com.mygdx.game.next.blocks.Side;
 import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.events.EventMagic;
+import com.mygdx.game.next.events.EventReceiver;
+import com.mygdx.game.next.io.RegionStorage;
 import com.mygdx.game.next.util.Vector3i;
+import com.mygdx.game.next.util.VectorUtil;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.BlockView;
+import com.mygdx.game.next.world.Chunk;
 
 import lombok.Getter;
 
-public class World implements RenderableProvider, Disposable {
-  private final Block[] blocks;
+/**
+ * The blocks of the world in chunks. Holds no render state, see {@link
+ * com.mygdx.game.next.render.WorldRenderer}.
+ */
+public class World implements BlockView, Disposable {
+  /** Region operations spanning fewer chunks are not worth handing to other threads. */
+  private static final int PARALLEL_MIN_CHUNKS = 64;
+  /** Chunks that region operations load and modify at a time. */
+  private static final int REGION_BATCH_CHUNKS = 256;
+
+  private final LongMap<Chunk> chunks = new LongMap<>();
+  private final EventMagic<Chunk> chunkChanges = new EventMagic<>();
   @Getter private final int w;
   @Getter private final int h;
 
   @Getter private final int d;
 
+  /** Where chunks are paged in from and written back to; {@code null} if held in memory only. */
+  private final RegionStorage storage;
+  private final int maxLoadedChunks;
+  private long accessClock;
+
+  /** Creates an empty world that is held in memory entirely. */
   public World(int w, int h, int d) {
+    this(w, h, d, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a world that loads its chunks from the storage when they are first accessed and writes
+   * them back once more than {@code maxLoadedChunks} are loaded. Only loaded chunks are rendered
+   * and visible through {@link #getProperties}.
+   */
+  public World(RegionStorage storage, int maxLoadedChunks) {
+    this(storage.getW(), storage.getH(), storage.getD(), storage, maxLoadedChunks);
+  }
+
+  private World(int w, int h, int d, RegionStorage storage, int maxLoadedChunks) {
     this.w = w;
     this.d = d;
     this.h = h;
-    blocks = new Block[w * this.h * d];
+    this.storage = storage;
+    this.maxLoadedChunks = maxLoadedChunks;
+  }
 
+  /** Creates a world with a floor of cubes and a few slopes on it. */
+  public static World createDemo(int w, int h, int d) {
+    var world = new World(w, h, d);
+    var floor =
+        new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
     for (int x = 0; x < w; x++) {
       for (int z = 0; z < d; z++) {
-        var coords = new Vector3i(x, 0, z);
-        setBlockAt(
-            coords,
-            new Block(
-                coords,
-                new BlockProperties(
-                    Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1)));
+        world.setBlockAt(x, 0, z, floor);
+      }
+    }
+    EnumSet<Side> sides = EnumSet.allOf(Side.class);
+    sides.remove(Side.LEFT);
+    world.setBlockAt(
+        0, 1, 0, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, sides, 0, 0.5f));
+    world.setBlockAt(
+        1, 1, 0, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, sides, 0.5f, 1.0f));
+    world.setBlockAt(
+        2, 1, 0, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.NORTH, sides, 0.5f, 1.0f));
+    return world;
+  }
+
+  public void setBlockAt(Vector3i coords, BlockProperties properties) {
+    setBlockAt(coords.x, coords.y, coords.z, properties);
+  }
+
+  /** @param properties the new block or {@code null} to remove it */
+  public void setBlockAt(int x, int y, int z, BlockProperties properties) {
+    ensureValidCoordinates(x, y, z);
+    Chunk chunk = getOrLoadChunk(Chunk.toChunk(x), Chunk.toChunk(y), Chunk.toChunk(z));
+    if (chunk == null) {
+      if (properties == null) {
+        return;
       }
+      chunk = createChunk(Chunk.toChunk(x), Chunk.toChunk(y), Chunk.toChunk(z));
     }
-    {
-      Vector3i p = new Vector3i(0, 1, 0);
-      EnumSet<Side> sides = EnumSet.allOf(Side.class);
-      sides.remove(Side.LEFT);
-      setBlockAt(
-          p,
-          new Block(
-              p, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, sides, 0, 0.5f)));
-    }
-
-    {
-      Vector3i p = new Vector3i(1, 1, 0);
-      EnumSet<Side> sides = EnumSet.allOf(Side.class);
-      sides.remove(Side.LEFT);
-      setBlockAt(
-          p,
-          new Block(
-              p, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, sides, 0.5f, 1.0f)));
-    }
-
-    {
-      Vector3i p = new Vector3i(2, 1, 0);
-      EnumSet<Side> sides = EnumSet.allOf(Side.class);
-      sides.remove(Side.LEFT);
-      setBlockAt(
-          p,
-          new Block(
-              p, new BlockProperties(Type.SLOPE_HALF, BlockOrientation.NORTH, sides, 0.5f, 1.0f)));
-    }
-
-    for (Block chunk : blocks) {
-      if (chunk != null) {
-        chunk.update();
+    int version = chunk.getVersion();
+    chunk.set(Chunk.toLocal(x), Chunk.toLocal(y), Chunk.toLocal(z), properties);
+    if (chunk.getVersion() == version) {
+      return;
+    }
+    markNeighbourChunksModified(x, y, z);
+    if (chunk.isEmpty()) {
+      unloadChunk(chunk);
+      if (storage != null) {
+        storage.remove(chunk.getCx(), chunk.getCy(), chunk.getCz());
       }
+    } else {
+      chunkChanges.fire(chunk);
     }
   }
 
-  public void setBlockAt(Vector3i coords, Block block) {
-    setBlockAt(coords.x, coords.y, coords.z, block);
+  /** Changes an existing block, does nothing for empty cells. */
+  public void setProperties(Vector3i coords, BlockProperties properties) {
+    if (getBlockAt(coords) != null) {
+      setBlockAt(coords, properties);
+    }
   }
 
-  public void setBlockAt(int x, int y, int z, Block block) {
-    ensureValidCoordinates(x, y, z);
-    blocks[toArrIndex(x, y, z)] = block;
+  /**
+   * Sets all cells of the box between the two corners (inclusive, in any order) to the block, or
+   * removes them for {@code null}. Works on whole chunk sections and reports every changed chunk
+   * once, which is much cheaper than {@link #setBlockAt} per cell. Large boxes are processed in
+   * parallel.
+   */
+  public void fill(Vector3i a, Vector3i b, BlockProperties properties) {
+    fill(a, b, properties, chunkSpan(a, b) >= PARALLEL_MIN_CHUNKS);
+  }
+
+  /** @param parallel whether to modify the chunks on the common fork join pool */
+  public void fill(Vector3i a, Vector3i b, BlockProperties properties, boolean parallel) {
+    int id = BlockPalette.intern(properties);
+    applyToRegion(
+        a,
+        b,
+        id != BlockPalette.AIR,
+        parallel,
+        (chunk, x0, y0, z0, x1, y1, z1) -> chunk.fill(x0, y0, z0, x1, y1, z1, id));
+  }
+
+  /** Removes all blocks in the box between the two corners, see {@link #fill}. */
+  public void clear(Vector3i a, Vector3i b) {
+    fill(a, b, null);
+  }
+
+  public void clear(Vector3i a, Vector3i b, boolean parallel) {
+    fill(a, b, null, parallel);
+  }
+
+  /**
+   * Changes all cells in the box between the two corners that hold {@code target} to {@code
+   * replacement}, where {@code null} stands for empty cells. See {@link #fill}.
+   */
+  public void replace(Vector3i a, Vector3i b, BlockProperties target, BlockProperties replacement) {
+    replace(a, b, target, replacement, chunkSpan(a, b) >= PARALLEL_MIN_CHUNKS);
+  }
+
+  public void replace(
+      Vector3i a,
+      Vector3i b,
+      BlockProperties target,
+      BlockProperties replacement,
+      boolean parallel) {
+    int fromId = BlockPalette.intern(target);
+    int toId = BlockPalette.intern(replacement);
+    if (fromId == toId) {
+      return;
+    }
+    applyToRegion(
+        a,
+        b,
+        fromId == BlockPalette.AIR,
+        parallel,
+        (chunk, x0, y0, z0, x1, y1, z1) -> chunk.replace(x0, y0, z0, x1, y1, z1, fromId, toId));
+  }
+
+  /**
+   * Passes the {@link BlockPalette} ids of all cells in the box between the two corners to the
+   * consumer. Cells are visited chunk section by chunk section, in the order {@link #writeIds}
+   * expects them.
+   */
+  public void readIds(Vector3i a, Vector3i b, IntConsumer ids) {
+    ensureValidCoordinates(a);
+    ensureValidCoordinates(b);
+    var min = VectorUtil.getMinimum(a, b);
+    var max = VectorUtil.getMaximum(a, b);
+    for (int cy = Chunk.toChunk(min.y); cy <= Chunk.toChunk(max.y); cy++) {
+      for (int cz = Chunk.toChunk(min.z); cz <= Chunk.toChunk(max.z); cz++) {
+        for (int cx = Chunk.toChunk(min.x); cx <= Chunk.toChunk(max.x); cx++) {
+          Chunk chunk = getOrLoadChunk(cx, cy, cz);
+          int ox = cx << Chunk.SHIFT;
+          int oy = cy << Chunk.SHIFT;
+          int oz = cz << Chunk.SHIFT;
+          for (int y = Math.max(min.y - oy, 0); y <= Math.min(max.y - oy, Chunk.MASK); y++) {
+            for (int z = Math.max(min.z - oz, 0); z <= Math.min(max.z - oz, Chunk.MASK); z++) {
+              for (int x = Math.max(min.x - ox, 0); x <= Math.min(max.x - ox, Chunk.MASK); x++) {
+                ids.accept(chunk == null ? BlockPalette.AIR : chunk.getId(Chunk.index(x, y, z)));
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets all cells in the box between the two corners to the ids of the supplier, which are taken
+   * in the order of {@link #readIds}. Changes are reported once per chunk like for {@link #fill}.
+   */
+  public void writeIds(Vector3i a, Vector3i b, IntSupplier ids) {
+    applyToRegion(
+        a,
+        b,
+        true,
+        false,
+        (chunk, x0, y0, z0, x1, y1, z1) ->
+            chunk.setIds(x0, y0, z0, x1, y1, z1, (x, y, z) -> ids.getAsInt()));
+  }
+
+  /**
+   * Sets all cells in the box between the two corners to the ids the source returns for their
+   * world coordinates, see {@link #fill}. The source is called from several threads for large
+   * boxes.
+   */
+  public void stamp(Vector3i a, Vector3i b, Chunk.IdSource source) {
+    applyToRegion(
+        a,
+        b,
+        true,
+        chunkSpan(a, b) >= PARALLEL_MIN_CHUNKS,
+        (chunk, x0, y0, z0, x1, y1, z1) -> {
+          int ox = chunk.getCx() << Chunk.SHIFT;
+          int oy = chunk.getCy() << Chunk.SHIFT;
+          int oz = chunk.getCz() << Chunk.SHIFT;
+          return chunk.setIds(
+              x0, y0, z0, x1, y1, z1, (x, y, z) -> source.getId(ox + x, oy + y, oz + z));
+        });
+  }
+
+  private static int chunkSpan(Vector3i a, Vector3i b) {
+    return (Math.abs(Chunk.toChunk(a.x) - Chunk.toChunk(b.x)) + 1)
+        * (Math.abs(Chunk.toChunk(a.y) - Chunk.toChunk(b.y)) + 1)
+        * (Math.abs(Chunk.toChunk(a.z) - Chunk.toChunk(b.z)) + 1);
+  }
+
+  /**
+   * Runs the operation on the section of every chunk that intersects the box. Chunks are loaded in
+   * batches so a world backed by storage can be edited beyond its loaded chunk limit. Only after
+   * the whole box is done are the changes reported, once per chunk.
+   *
+   * <p>Sequential operations see the chunks in the order of {@link #readIds}.
+   *
+   * @param createChunks whether the operation can put blocks into cells that are empty
+   */
+  private void applyToRegion(
+      Vector3i a, Vector3i b, boolean createChunks, boolean parallel, SectionOperation operation) {
+    ensureValidCoordinates(a);
+    ensureValidCoordinates(b);
+    var min = VectorUtil.getMinimum(a, b);
+    var max = VectorUtil.getMaximum(a, b);
+
+    int batchSize = Math.max(1, Math.min(REGION_BATCH_CHUNKS, maxLoadedChunks / 2));
+    var batch = new Array<Chunk>(false, batchSize, Chunk.class);
+    var changed = new ObjectSet<Chunk>();
+    var created = new Array<Chunk>(false, 16, Chunk.class);
+    for (int cy = Chunk.toChunk(min.y); cy <= Chunk.toChunk(max.y); cy++) {
+      for (int cz = Chunk.toChunk(min.z); cz <= Chunk.toChunk(max.z); cz++) {
+        for (int cx = Chunk.toChunk(min.x); cx <= Chunk.toChunk(max.x); cx++) {
+          Chunk chunk = getOrLoadChunk(cx, cy, cz);
+          if (chunk == null) {
+            if (!createChunks) {
+              continue;
+            }
+            chunk = createChunk(cx, cy, cz);
+            created.add(chunk);
+          }
+          batch.add(chunk);
+          if (batch.size == batchSize) {
+            applyToBatch(batch, min, max, parallel, operation, changed);
+          }
+        }
+      }
+    }
+    applyToBatch(batch, min, max, parallel, operation, changed);
+    for (Chunk chunk : created) {
+      if (chunk.isEmpty() && !changed.contains(chunk)) {
+        unloadChunk(chunk);
+      }
+    }
+
+    for (Chunk chunk : changed) {
+      markRegionNeighboursModified(chunk, min, max, changed);
+    }
+    for (Chunk chunk : changed) {
+      if (chunk.isEmpty()) {
+        if (getChunk(chunk.getCx(), chunk.getCy(), chunk.getCz()) == chunk) {
+          unloadChunk(chunk);
+        }
+        if (storage != null) {
+          storage.remove(chunk.getCx(), chunk.getCy(), chunk.getCz());
+        }
+      } else {
+        chunkChanges.fire(chunk);
+      }
+    }
+  }
+
+  /** The chunks only touch their own cells, so they can be modified concurrently. */
+  private static void applyToBatch(
+      Array<Chunk> batch,
+      Vector3i min,
+      Vector3i max,
+      boolean parallel,
+      SectionOperation operation,
+      ObjectSet<Chunk> changed) {
+    var results = new boolean[batch.size];
+    IntConsumer task =
+        i -> {
+          Chunk chunk = batch.get(i);
+          int ox = chunk.getCx() << Chunk.SHIFT;
+          int oy = chunk.getCy() << Chunk.SHIFT;
+          int oz = chunk.getCz() << Chunk.SHIFT;
+          results[i] =
+              operation.apply(
+                  chunk,
+                  Math.max(min.x - ox, 0),
+                  Math.max(min.y - oy, 0),
+                  Math.max(min.z - oz, 0),
+                  Math.min(max.x - ox, Chunk.MASK),
+                  Math.min(max.y - oy, Chunk.MASK),
+                  Math.min(max.z - oz, Chunk.MASK));
+        };
+    if (parallel && batch.size > 1) {
+      IntStream.range(0, batch.size).parallel().forEach(task);
+    } else {
+      for (int i = 0; i < batch.size; i++) {
+        task.accept(i);
+      }
+    }
+    for (int i = 0; i < batch.size; i++) {
+      if (results[i]) {
+        changed.add(batch.get(i));
+      }
+    }
+    batch.clear();
+  }
+
+  /** Like {@link #markNeighbourChunksModified} for the borders of the chunk the box reaches. */
+  private void markRegionNeighboursModified(
+      Chunk chunk, Vector3i min, Vector3i max, ObjectSet<Chunk> changed) {
+    int cx = chunk.getCx();
+    int cy = chunk.getCy();
+    int cz = chunk.getCz();
+    if (min.x <= cx << Chunk.SHIFT) {
+      markRegionNeighbourModified(cx - 1, cy, cz, changed);
+    }
+    if (max.x >= (cx << Chunk.SHIFT) + Chunk.MASK) {
+      markRegionNeighbourModified(cx + 1, cy, cz, changed);
+    }
+    if (min.y <= cy << Chunk.SHIFT) {
+      markRegionNeighbourModified(cx, cy - 1, cz, changed);
+    }
+    if (max.y >= (cy << Chunk.SHIFT) + Chunk.MASK) {
+      markRegionNeighbourModified(cx, cy + 1, cz, changed);
+    }
+    if (min.z <= cz << Chunk.SHIFT) {
+      markRegionNeighbourModified(cx, cy, cz - 1, changed);
+    }
+    if (max.z >= (cz << Chunk.SHIFT) + Chunk.MASK) {
+      markRegionNeighbourModified(cx, cy, cz + 1, changed);
+    }
+  }
+
+  /** Chunks that changed themselves already got a new version. */
+  private void markRegionNeighbourModified(int cx, int cy, int cz, ObjectSet<Chunk> changed) {
+    Chunk chunk = getChunk(cx, cy, cz);
+    if (chunk != null && !changed.contains(chunk)) {
+      chunk.markModified();
+      chunkChanges.fire(chunk);
+    }
+  }
+
+  private interface SectionOperation {
+    /**
+     * Modifies the box between the local coordinates (inclusive).
+     *
+     * @return whether the chunk changed
+     */
+    boolean apply(Chunk chunk, int x0, int y0, int z0, int x1, int y1, int z1);
+  }
+
+  /** Blocks on the border of a chunk decide which faces of the adjacent chunk are visible. */
+  private void markNeighbourChunksModified(int x, int y, int z) {
+    int lx = Chunk.toLocal(x);
+    int ly = Chunk.toLocal(y);
+    int lz = Chunk.toLocal(z);
+    if (lx == 0) {
+      markChunkModified(x - 1, y, z);
+    } else if (lx == Chunk.MASK) {
+      markChunkModified(x + 1, y, z);
+    }
+    if (ly == 0) {
+      markChunkModified(x, y - 1, z);
+    } else if (ly == Chunk.MASK) {
+      markChunkModified(x, y + 1, z);
+    }
+    if (lz == 0) {
+      markChunkModified(x, y, z - 1);
+    } else if (lz == Chunk.MASK) {
+      markChunkModified(x, y, z + 1);
+    }
+  }
+
+  private void markChunkModified(int x, int y, int z) {
+    Chunk chunk = chunks.get(Chunk.key(Chunk.toChunk(x), Chunk.toChunk(y), Chunk.toChunk(z)));
+    if (chunk != null) {
+      chunk.markModified();
+      chunkChanges.fire(chunk);
+    }
   }
 
   public Block getBlockAt(Vector3i coords) {
     return getBlockAt(coords.x, coords.y, coords.z);
   }
 
+  /**
+   * Loads the chunk of the block from the storage if necessary.
+   *
+   * @return a snapshot of the cell or {@code null} if it is empty
+   */
   public Block getBlockAt(int x, int y, int z) {
     ensureValidCoordinates(x, y, z);
-    return blocks[toArrIndex(x, y, z)];
+    Chunk chunk = getOrLoadChunk(Chunk.toChunk(x), Chunk.toChunk(y), Chunk.toChunk(z));
+    if (chunk == null) {
+      return null;
+    }
+    BlockProperties properties = chunk.get(Chunk.toLocal(x), Chunk.toLocal(y), Chunk.toLocal(z));
+    return properties == null ? null : new Block(new Vector3i(x, y, z), properties);
+  }
+
+  /** Only looks at loaded chunks, so meshing and picking never load anything. */
+  @Override
+  public BlockProperties getProperties(int x, int y, int z) {
+    if (!(0 <= x && x < w && 0 <= y && y < h && 0 <= z && z < d)) {
+      return null;
+    }
+    Chunk chunk = chunks.get(Chunk.key(Chunk.toChunk(x), Chunk.toChunk(y), Chunk.toChunk(z)));
+    if (chunk == null) {
+      return null;
+    }
+    return chunk.get(Chunk.toLocal(x), Chunk.toLocal(y), Chunk.toLocal(z));
+  }
+
+  /**
+   * Fired with every chunk that was added, removed or unloaded, and whenever the version of a
+   * loaded chunk changed, i.e. its own blocks or the ones of a neighbour that affect its mesh.
+   * Listeners can tell a removed chunk by {@link #getChunk} no longer returning it.
+   */
+  public EventReceiver<Chunk> getChunkChanges() {
+    return chunkChanges;
+  }
+
+  /**
+   * A copy-on-write snapshot of the chunk, see {@link Chunk#copy()}, which is loaded if necessary.
+   *
+   * @return {@code null} if the chunk holds no blocks
+   */
+  public Chunk copyChunk(int cx, int cy, int cz) {
+    Chunk chunk = getOrLoadChunk(cx, cy, cz);
+    return chunk == null ? null : chunk.copy();
+  }
+
+  /** The loaded chunk with the given chunk coordinates or {@code null}. */
+  public Chunk getChunk(int cx, int cy, int cz) {
+    return chunks.get(Chunk.key(cx, cy, cz));
+  }
+
+  /**
+   * All loaded chunks that hold at least one block. The returned iterable reuses its iterator, so
+   * it must not be iterated in a nested way.
+   */
+  public Iterable<Chunk> getChunks() {
+    return chunks.values();
+  }
+
+  /**
+   * Replaces the whole chunk at the coordinates of the given one, which is much cheaper than
+   * setting its blocks one by one. Used when loading worlds. An empty chunk removes the existing
+   * one.
+   */
+  public void putChunk(Chunk chunk) {
+    ensureValidCoordinates(
+        chunk.getCx() << Chunk.SHIFT, chunk.getCy() << Chunk.SHIFT, chunk.getCz() << Chunk.SHIFT);
+    Chunk old = getChunk(chunk.getCx(), chunk.getCy(), chunk.getCz());
+    if (old != null) {
+      unloadChunk(old);
+    }
+    if (!chunk.isEmpty()) {
+      addChunk(chunk);
+    }
+    markChunkNeighboursModified(chunk);
+    if (storage != null) {
+      if (chunk.isEmpty()) {
+        storage.remove(chunk.getCx(), chunk.getCy(), chunk.getCz());
+      } else {
+        chunk.setLastAccess(++accessClock);
+        evictChunks(chunk);
+      }
+    }
+  }
+
+  /** The loaded chunk or the one from the storage, which is then loaded. */
+  private Chunk getOrLoadChunk(int cx, int cy, int cz) {
+    Chunk chunk = chunks.get(Chunk.key(cx, cy, cz));
+    if (storage == null) {
+      return chunk;
+    }
+    if (chunk == null) {
+      chunk = storage.load(cx, cy, cz);
+      if (chunk == null) {
+        return null;
+      }
+      addChunk(chunk);
+      markChunkNeighboursModified(chunk);
+      chunk.setLastAccess(++accessClock);
+      evictChunks(chunk);
+    } else {
+      chunk.setLastAccess(++accessClock);
+    }
+    return chunk;
   }
 
-  private int toArrIndex(Vector3i coords) {
-    return toArrIndex(coords.x, coords.y, coords.z);
+  /**
+   * Writes back and unloads the least recently used chunks once too many are loaded. Unloads a
+   * quarter more than necessary so that this does not happen on every load.
+   */
+  private void evictChunks(Chunk keep) {
+    if (chunks.size <= maxLoadedChunks) {
+      return;
+    }
+    var loaded = new Array<Chunk>(false, chunks.size, Chunk.class);
+    for (Chunk chunk : chunks.values()) {
+      loaded.add(chunk);
+    }
+    loaded.sort(Comparator.comparingLong(Chunk::getLastAccess));
+    int target = maxLoadedChunks - maxLoadedChunks / 4;
+    for (int i = 0; i < loaded.size && chunks.size > target; i++) {
+      Chunk chunk = loaded.get(i);
+      if (chunk != keep) {
+        if (chunk.isDirty()) {
+          storage.save(chunk);
+        }
+        unloadChunk(chunk);
+        markChunkNeighboursModified(chunk);
+      }
+    }
+  }
+
+  /** Adds a new empty chunk, which the caller is expected to put a block into. */
+  private Chunk createChunk(int cx, int cy, int cz) {
+    var chunk = new Chunk(cx, cy, cz);
+    addChunk(chunk);
+    if (storage != null) {
+      chunk.setLastAccess(++accessClock);
+      evictChunks(chunk);
+    }
+    return chunk;
+  }
+
+  private void addChunk(Chunk chunk) {
+    chunks.put(chunk.getKey(), chunk);
+    chunkChanges.fire(chunk);
+  }
+
+  private void unloadChunk(Chunk chunk) {
+    chunks.remove(chunk.getKey());
+    chunkChanges.fire(chunk);
+  }
+
+  private void markChunkNeighboursModified(Chunk chunk) {
+    int x = chunk.getCx() << Chunk.SHIFT;
+    int y = chunk.getCy() << Chunk.SHIFT;
+    int z = chunk.getCz() << Chunk.SHIFT;
+    markChunkModified(x - 1, y, z);
+    markChunkModified(x + Chunk.SIZE, y, z);
+    markChunkModified(x, y - 1, z);
+    markChunkModified(x, y + Chunk.SIZE, z);
+    markChunkModified(x, y, z - 1);
+    markChunkModified(x, y, z + Chunk.SIZE);
   }
 
-  private int toArrIndex(int x, int y, int z) {
-    // https://stackoverflow.com/a/72590610/2060704
-    return (z * w * h) + (y * w) + x;
+  /**
+   * Loads the stored chunks within {@code radius} chunks of the given chunk and marks them as used,
+   * so the chunks that get written back and unloaded once too many are loaded are the ones that
+   * were not near any of the recent calls. Meant to be called whenever the camera enters another
+   * chunk; the sphere must hold fewer chunks than the world may load. Does nothing for worlds held
+   * in memory only.
+   */
+  public void loadChunksAround(int cx, int cy, int cz, int radius) {
+    if (storage == null) {
+      return;
+    }
+    int maxCx = Chunk.toChunk(w - 1);
+    int maxCy = Chunk.toChunk(h - 1);
+    int maxCz = Chunk.toChunk(d - 1);
+    for (int x = Math.max(0, cx - radius); x <= Math.min(maxCx, cx + radius); x++) {
+      for (int y = Math.max(0, cy - radius); y <= Math.min(maxCy, cy + radius); y++) {
+        for (int z = Math.max(0, cz - radius); z <= Math.min(maxCz, cz + radius); z++) {
+          int dx = x - cx;
+          int dy = y - cy;
+          int dz = z - cz;
+          if (dx * dx + dy * dy + dz * dz <= radius * radius) {
+            getOrLoadChunk(x, y, z);
+          }
+        }
+      }
+    }
+  }
+
+  /** Whether chunks are paged in from and written back to region files. */
+  public boolean hasStorage() {
+    return storage != null;
+  }
+
+  /** Writes all changed chunks to the storage. Does nothing for worlds held in memory only. */
+  public void flush() {
+    if (storage == null) {
+      return;
+    }
+    for (Chunk chunk : chunks.values()) {
+      if (chunk.isDirty()) {
+        storage.save(chunk);
+      }
+    }
+    storage.flush();
+  }
+
+  public int getChunkCount() {
+    return chunks.size;
   }
 
   public void ensureValidCoordinates(Vector3i coords) {
@@ -133,27 +678,11 @@ public class World implements RenderableProvider, Disposable {
     }
   }
 
-  @Override
-  public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
-    var tracker = new IdentityMap<>();
-    for (Block block : blocks) {
-      if (block != null) {
-        if (tracker.put(block, Void.class) == null) {
-          block.getRenderables(renderables, pool);
-        }
-      }
-    }
-  }
-
   @Override
   public void dispose() {
-    var tracker = new IdentityMap<>();
-    for (Block block : blocks) {
-      if (block != null) {
-        if (tracker.put(block, Void.class) == null) {
-          block.dispose();
-        }
-      }
+    if (storage != null) {
+      flush();
+      storage.dispose();
     }
   }
 }
@@ -1,6 +1,9 @@
 package com.mygdx.game.next;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -13,30 +16,69 @@ import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.PointLight;
 import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
 import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.mygdx.game.World;
 import com.mygdx.game.next.blocks.Block;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.io.HeightmapImporter;
+import com.mygdx.game.next.io.RegionStorage;
+import com.mygdx.game.next.io.WorldFormat;
+import com.mygdx.game.next.render.ChunkShaderProvider;
+import com.mygdx.game.next.render.InstancedWorldRenderer;
+import com.mygdx.game.next.render.TextureRegistry;
+import com.mygdx.game.next.render.WorldRenderer;
+import com.mygdx.game.next.util.Vector3i;
+import com.mygdx.game.next.world.Chunk;
 
 import static com.badlogic.gdx.graphics.GL20.GL_ONE_MINUS_SRC_ALPHA;
 import static com.badlogic.gdx.graphics.GL20.GL_SRC_ALPHA;
 
 public class GameBox extends ApplicationAdapter {
+  private static final int MAX_LOADED_CHUNKS = 4096;
+  /** Terrain for a new world, see {@link HeightmapImporter#importText}. */
+  private static final String HEIGHTMAP_FILE = "world.txt";
+  /** Height of the world built from the heightmap, whose samples go up to 9. */
+  private static final int HEIGHTMAP_WORLD_HEIGHT = 16;
+
   private final Consumer<ModelBatch> onRenderWorld;
   private final Consumer<ModelBatch> onPostRenderWorld;
+  /** Whether the world is drawn by an {@link InstancedWorldRenderer}, which needs GL 3.0. */
+  private final boolean instanced;
   private final List<Disposable> stuffToDispose = new ArrayList<>();
   private PerspectiveCamera camera;
   private ModelBatch modelBatch;
   private Environment environment;
   private World world;
+  /** Draws the world unless the box was started instanced, else {@code null}. */
+  private WorldRenderer worldRenderer;
+  /** Draws the world if the box was started instanced, else {@code null}. */
+  private InstancedWorldRenderer instancedRenderer;
+  /** Textures for the editor UI, the renderers pack their own atlas. */
+  private TextureRegistry textureRegistry;
+  /** The chunk the camera was in when chunks were last loaded around it. */
+  private final Vector3i cameraChunk = new Vector3i(Integer.MIN_VALUE, 0, 0);
 
   public GameBox(Consumer<ModelBatch> onRenderWorld, Consumer<ModelBatch> onPostRenderWorld) {
+    this(onRenderWorld, onPostRenderWorld, false);
+  }
+
+  public GameBox(
+      Consumer<ModelBatch> onRenderWorld,
+      Consumer<ModelBatch> onPostRenderWorld,
+      boolean instanced) {
     this.onRenderWorld = onRenderWorld;
     this.onPostRenderWorld = onPostRenderWorld;
+    this.instanced = instanced;
   }
 
   @Override
   public void create() {
-    world = new World(10, 5, 10);
+    world = loadWorld();
 
     camera = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
     camera.position.set(0f, Block.S * world.getH() + 10f, 40f);
@@ -45,22 +87,108 @@ public class GameBox extends ApplicationAdapter {
     camera.far = 500f;
     camera.update(true);
 
+    if (instanced) {
+      instancedRenderer = new InstancedWorldRenderer(world);
+      stuffToDispose.add(instancedRenderer);
+    } else {
+      worldRenderer = new WorldRenderer(world, camera);
+      stuffToDispose.add(worldRenderer);
+    }
+    textureRegistry = new TextureRegistry();
+    stuffToDispose.add(textureRegistry);
     stuffToDispose.add(world);
 
     RenderContext rc = new RenderContext(new DefaultTextureBinder(DefaultTextureBinder.LRU, 1));
     rc.setDepthMask(false);
     rc.setBlending(true, GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-    modelBatch = new ModelBatch();
+    modelBatch = new ModelBatch(new ChunkShaderProvider());
 
     environment = new Environment();
     environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.6f, 0.6f, 0.6f, 1f));
     environment.add(new PointLight().set(0.6f, 0.4f, 0.3f, 8f, Block.S * 5 + 10f, -6f, 200));
   }
 
+  /**
+   * Opens the region directory. If there is none yet, it is created from the last saved world or
+   * the imported heightmap. The world is kept in memory if the directory cannot be opened or
+   * created.
+   */
+  private static World loadWorld() {
+    var directory = Gdx.files.local(RegionStorage.DEFAULT_DIRECTORY).file().toPath();
+    if (RegionStorage.exists(directory)) {
+      try {
+        return new World(RegionStorage.open(directory), MAX_LOADED_CHUNKS);
+      } catch (IOException e) {
+        Gdx.app.error("GameBox", "Opening " + directory + " failed", e);
+        return loadSavedWorld();
+      }
+    }
+    var world = loadSavedWorld();
+    try {
+      var storage = RegionStorage.create(directory, world);
+      world.dispose();
+      return new World(storage, MAX_LOADED_CHUNKS);
+    } catch (IOException | UncheckedIOException e) {
+      Gdx.app.error("GameBox", "Creating " + directory + " failed", e);
+      return world;
+    }
+  }
+
+  /** Loads the world saved with {@link WorldFormat} or imports the heightmap. */
+  private static World loadSavedWorld() {
+    var file = Gdx.files.local(WorldFormat.DEFAULT_FILE);
+    if (file.exists()) {
+      try {
+        return WorldFormat.read(file.file().toPath());
+      } catch (IOException e) {
+        Gdx.app.error("GameBox", "Loading " + file.path() + " failed", e);
+      }
+    }
+    return importHeightmap();
+  }
+
+  /**
+   * Builds a world just large enough for the heightmap, or the demo world if that fails. The file
+   * is streamed twice, once to size the world and once to import it.
+   */
+  private static World importHeightmap() {
+    var file = Gdx.files.internal(HEIGHTMAP_FILE);
+    try {
+      HeightmapImporter.TextSize size;
+      try (var reader = file.reader(8192, "US-ASCII")) {
+        size = HeightmapImporter.measureText(reader);
+      }
+      if (size.width() > 0) {
+        var world = new World(size.width(), HEIGHTMAP_WORLD_HEIGHT, size.depth());
+        var floor =
+            new BlockProperties(
+                Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+        try (var reader = file.reader(8192, "US-ASCII")) {
+          new HeightmapImporter(world, floor, 1, Runtime.getRuntime().availableProcessors())
+              .importText(reader);
+        }
+        return world;
+      }
+    } catch (IOException | GdxRuntimeException e) {
+      Gdx.app.error("GameBox", "Importing " + file.path() + " failed", e);
+    }
+    return World.createDemo(10, 5, 10);
+  }
+
   @Override
   public void render() {
+    loadChunksAroundCamera();
+    if (instancedRenderer != null) {
+      instancedRenderer.update();
+      instancedRenderer.render(camera);
+    } else {
+      worldRenderer.update();
+    }
+
     modelBatch.begin(camera);
-    modelBatch.render(world, environment);
+    if (worldRenderer != null) {
+      modelBatch.render(worldRenderer, environment);
+    }
     onRenderWorld.accept(modelBatch);
     modelBatch.end();
 
@@ -69,6 +197,19 @@ public class GameBox extends ApplicationAdapter {
     modelBatch.end();
   }
 
+  /** Lets the world page in the chunks in view and page out the rest, see {@link World}. */
+  private void loadChunksAroundCamera() {
+    int cx = Chunk.toChunk(MathUtils.floor(camera.position.x / Block.S));
+    int cy = Chunk.toChunk(MathUtils.floor(camera.position.y / Block.S));
+    int cz = Chunk.toChunk(MathUtils.floor(camera.position.z / Block.S));
+    if (cameraChunk.x == cx && cameraChunk.y == cy && cameraChunk.z == cz) {
+      return;
+    }
+    cameraChunk.set(cx, cy, cz);
+    int radius = MathUtils.ceil(camera.far / (Chunk.SIZE * Block.S)) + 1;
+    world.loadChunksAround(cx, cy, cz, radius);
+  }
+
   @Override
   public void resize(int width, int height) {
     camera.viewportWidth = width;
@@ -88,4 +229,18 @@ public class GameBox extends ApplicationAdapter {
   public World getWorld() {
     return world;
   }
+
+  /** The renderer that draws the world unless the box was started instanced, else {@code null}. */
+  public WorldRenderer getRenderer() {
+    return worldRenderer;
+  }
+
+  public TextureRegistry getTextureRegistry() {
+    return textureRegistry;
+  }
+
+  /** The renderer that draws the world if the box was started instanced, else {@code null}. */
+  public InstancedWorldRenderer getInstancedRenderer() {
+    return instancedRenderer;
+  }
 }
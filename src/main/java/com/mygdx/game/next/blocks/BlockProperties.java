@@ -1,16 +1,42 @@
 package com.mygdx.game.next.blocks;
 
+import java.util.Map;
 import java.util.Set;
 
+import lombok.AllArgsConstructor;
 import lombok.Value;
 import lombok.With;
 
 @Value
 @With
+@AllArgsConstructor
 public class BlockProperties {
   Type type;
   BlockOrientation orientation;
   Set<Side> sides;
   float h1;
   float h2;
+  /** Asset path of the texture of all sides without an entry in {@link #faceTextures}. */
+  String texture;
+  /** Asset paths of textures that differ from {@link #texture} by side. */
+  Map<Side, String> faceTextures;
+
+  public BlockProperties(
+      Type type, BlockOrientation orientation, Set<Side> sides, float h1, float h2) {
+    this(type, orientation, sides, h1, h2, Block.DEFAULT_TEXTURE);
+  }
+
+  public BlockProperties(
+      Type type,
+      BlockOrientation orientation,
+      Set<Side> sides,
+      float h1,
+      float h2,
+      String texture) {
+    this(type, orientation, sides, h1, h2, texture, Map.of());
+  }
+
+  public String getTexture(Side side) {
+    return faceTextures.getOrDefault(side, texture);
+  }
 }
@@ -0,0 +1,170 @@
+package com.mygdx.game.next.editor;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.badlogic.gdx.utils.LongMap;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.util.Vector3i;
+import com.mygdx.game.next.util.VectorUtil;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.Chunk;
+
+import lombok.Getter;
+
+/**
+ * A copied box of the world. Holds copy-on-write snapshots of the chunks the box intersects, so
+ * copying costs a few objects per chunk and the blocks are only duplicated once the world changes.
+ *
+ * <p>Pastes can be rotated in quarter turns around the y axis. A clockwise turn moves cell {@code
+ * (x, z)} to {@code (sizeZ - 1 - z, x)}, turns the orientation of blocks with {@link
+ * BlockOrientation#turnClockwise()} and moves their sides and face textures from back to right to
+ * front to left.
+ */
+public class Clipboard {
+  private static final Side[] HORIZONTAL_SIDES = {Side.BACK, Side.RIGHT, Side.FRONT, Side.LEFT};
+
+  /** Minimum corner of the copied box in the world it was copied from. */
+  private final Vector3i origin;
+
+  private final Vector3i size;
+  private final LongMap<Chunk> chunks;
+  /** Clockwise quarter turns applied when pasting. */
+  @Getter private int rotation;
+
+  private Clipboard(Vector3i origin, Vector3i size, LongMap<Chunk> chunks) {
+    this.origin = origin;
+    this.size = size;
+    this.chunks = chunks;
+  }
+
+  /** Copies the box between the two corners (inclusive, in any order). */
+  public static Clipboard copy(World world, Vector3i a, Vector3i b) {
+    world.ensureValidCoordinates(a);
+    world.ensureValidCoordinates(b);
+    var min = VectorUtil.getMinimum(a, b);
+    var max = VectorUtil.getMaximum(a, b);
+    var chunks = new LongMap<Chunk>();
+    for (int cy = Chunk.toChunk(min.y); cy <= Chunk.toChunk(max.y); cy++) {
+      for (int cz = Chunk.toChunk(min.z); cz <= Chunk.toChunk(max.z); cz++) {
+        for (int cx = Chunk.toChunk(min.x); cx <= Chunk.toChunk(max.x); cx++) {
+          Chunk chunk = world.copyChunk(cx, cy, cz);
+          if (chunk != null) {
+            chunks.put(chunk.getKey(), chunk);
+          }
+        }
+      }
+    }
+    return new Clipboard(min, VectorUtil.getAreaVector(min, max).add(1), chunks);
+  }
+
+  public void rotateClockwise() {
+    rotation = (rotation + 1) & 3;
+  }
+
+  public void rotateCounterClockwise() {
+    rotation = (rotation + 3) & 3;
+  }
+
+  /** The size of a paste, which has x and z swapped for odd rotations. */
+  public Vector3i getPasteSize() {
+    return (rotation & 1) == 0 ? size.cpy() : new Vector3i(size.z, size.y, size.x);
+  }
+
+  /** The maximum corner of a paste at the given minimum corner, clipped to the world. */
+  public Vector3i getPasteMax(World world, Vector3i at) {
+    var pasteSize = getPasteSize();
+    return new Vector3i(
+        Math.min(at.x + pasteSize.x, world.getW()) - 1,
+        Math.min(at.y + pasteSize.y, world.getH()) - 1,
+        Math.min(at.z + pasteSize.z, world.getD()) - 1);
+  }
+
+  /**
+   * Replaces the box starting at the given minimum corner with the copied blocks, empty cells
+   * included. Whatever would end up outside of the world is cut off.
+   */
+  public void paste(World world, Vector3i at) {
+    int turns = rotation;
+    // Rotated ids by original id, -1 if not known yet. Threads may compute the same entry twice,
+    // which is harmless as interning returns the same id.
+    int[] rotated = new int[BlockPalette.size()];
+    Arrays.fill(rotated, -1);
+    rotated[BlockPalette.AIR] = BlockPalette.AIR;
+    int ax = at.x;
+    int ay = at.y;
+    int az = at.z;
+    world.stamp(
+        at,
+        getPasteMax(world, at),
+        (x, y, z) -> {
+          int id = getRotatedId(x - ax, y - ay, z - az, turns);
+          if (turns == 0) {
+            return id;
+          }
+          int result = rotated[id];
+          if (result < 0) {
+            result = BlockPalette.intern(rotate(BlockPalette.get(id), turns));
+            rotated[id] = result;
+          }
+          return result;
+        });
+  }
+
+  /** The original id of a cell of a paste with the given rotation. */
+  private int getRotatedId(int x, int y, int z, int turns) {
+    for (int i = turns; i > 0; i--) {
+      // Undoes the i-th turn, which started out with x and z swapped if i - 1 was odd.
+      int sizeZ = ((i - 1) & 1) == 0 ? size.z : size.x;
+      int previousX = z;
+      z = sizeZ - 1 - x;
+      x = previousX;
+    }
+    return getId(x, y, z);
+  }
+
+  /** @param x relative to the minimum corner of the copied box, same for y and z */
+  private int getId(int x, int y, int z) {
+    int wx = origin.x + x;
+    int wy = origin.y + y;
+    int wz = origin.z + z;
+    Chunk chunk = chunks.get(Chunk.key(Chunk.toChunk(wx), Chunk.toChunk(wy), Chunk.toChunk(wz)));
+    if (chunk == null) {
+      return BlockPalette.AIR;
+    }
+    return chunk.getId(Chunk.index(Chunk.toLocal(wx), Chunk.toLocal(wy), Chunk.toLocal(wz)));
+  }
+
+  private static BlockProperties rotate(BlockProperties properties, int turns) {
+    BlockOrientation orientation = properties.getOrientation();
+    for (int i = 0; i < turns; i++) {
+      orientation = orientation.turnClockwise();
+    }
+    var sides = EnumSet.noneOf(Side.class);
+    for (Side side : properties.getSides()) {
+      sides.add(rotate(side, turns));
+    }
+    Map<Side, String> faceTextures = new EnumMap<>(Side.class);
+    for (Map.Entry<Side, String> entry : properties.getFaceTextures().entrySet()) {
+      faceTextures.put(rotate(entry.getKey(), turns), entry.getValue());
+    }
+    return properties
+        .withOrientation(orientation)
+        .withSides(sides)
+        .withFaceTextures(faceTextures);
+  }
+
+  private static Side rotate(Side side, int turns) {
+    for (int i = 0; i < HORIZONTAL_SIDES.length; i++) {
+      if (HORIZONTAL_SIDES[i] == side) {
+        return HORIZONTAL_SIDES[(i + turns) & 3];
+      }
+    }
+    return side;
+  }
+}
@@ -0,0 +1,162 @@
+package com.mygdx.game.next.editor;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Queue;
+import com.mygdx.game.World;
+import com.mygdx.game.next.util.Vector3i;
+import com.mygdx.game.next.util.VectorUtil;
+
+import lombok.Getter;
+
+/**
+ * Undo and redo for edits of boxes of the world. An edit is stored as the box and the palette ids
+ * of its cells before and after, run-length encoded, so clearing a large area costs a few runs
+ * instead of a copy of every block. The oldest edits are dropped once the history exceeds {@code
+ * maxBytes}.
+ */
+public class EditHistory {
+  public static final long DEFAULT_MAX_BYTES = 32L << 20;
+
+  /** Rough size of an edit without its runs. */
+  private static final int EDIT_OVERHEAD = 96;
+
+  private final World world;
+  private final long maxBytes;
+  private final Queue<Edit> undos = new Queue<>();
+  private final Array<Edit> redos = new Array<>();
+  /** Estimated memory used by all edits in the history. */
+  @Getter private long bytes;
+
+  public EditHistory(World world, long maxBytes) {
+    this.world = world;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Runs an edit that touches nothing outside the box between the two corners and records it.
+   * Discards everything that could be redone.
+   */
+  public void record(Vector3i a, Vector3i b, Runnable edit) {
+    var min = VectorUtil.getMinimum(a, b);
+    var max = VectorUtil.getMaximum(a, b);
+    int[] before = encode(min, max);
+    edit.run();
+    int[] after = encode(min, max);
+    if (Arrays.equals(before, after)) {
+      return;
+    }
+    for (Edit redo : redos) {
+      bytes -= redo.bytes();
+    }
+    redos.clear();
+    undos.addLast(new Edit(min, max, before, after));
+    bytes += undos.last().bytes();
+    while (bytes > maxBytes && undos.size > 0) {
+      bytes -= undos.removeFirst().bytes();
+    }
+  }
+
+  /** @return whether there was anything to undo */
+  public boolean undo() {
+    if (undos.size == 0) {
+      return false;
+    }
+    Edit edit = undos.removeLast();
+    world.writeIds(edit.min(), edit.max(), new RunDecoder(edit.before()));
+    redos.add(edit);
+    return true;
+  }
+
+  /** @return whether there was anything to redo */
+  public boolean redo() {
+    if (redos.isEmpty()) {
+      return false;
+    }
+    Edit edit = redos.pop();
+    world.writeIds(edit.min(), edit.max(), new RunDecoder(edit.after()));
+    undos.addLast(edit);
+    return true;
+  }
+
+  public int getUndoCount() {
+    return undos.size;
+  }
+
+  public int getRedoCount() {
+    return redos.size;
+  }
+
+  public void clear() {
+    undos.clear();
+    redos.clear();
+    bytes = 0;
+  }
+
+  private int[] encode(Vector3i min, Vector3i max) {
+    var encoder = new RunEncoder();
+    world.readIds(min, max, encoder);
+    return encoder.finish();
+  }
+
+  /**
+   * @param before pairs of palette id and run length in the order of {@link World#readIds}
+   * @param after same as {@code before}
+   */
+  private record Edit(Vector3i min, Vector3i max, int[] before, int[] after) {
+    long bytes() {
+      return EDIT_OVERHEAD + 4L * (before.length + after.length);
+    }
+  }
+
+  private static class RunEncoder implements IntConsumer {
+    private final IntArray runs = new IntArray();
+    private int id = -1;
+    private int length;
+
+    @Override
+    public void accept(int next) {
+      if (next == id) {
+        length++;
+        return;
+      }
+      if (length > 0) {
+        runs.add(id, length);
+      }
+      id = next;
+      length = 1;
+    }
+
+    int[] finish() {
+      if (length > 0) {
+        runs.add(id, length);
+      }
+      return runs.toArray();
+    }
+  }
+
+  private static class RunDecoder implements IntSupplier {
+    private final int[] runs;
+    private int run;
+    private int left;
+
+    RunDecoder(int[] runs) {
+      this.runs = runs;
+      this.left = runs[1];
+    }
+
+    @Override
+    public int getAsInt() {
+      if (left == 0) {
+        run += 2;
+        left = runs[run + 1];
+      }
+      left--;
+      return runs[run];
+    }
+  }
+}
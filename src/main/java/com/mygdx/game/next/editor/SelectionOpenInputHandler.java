@@ -18,12 +18,13 @@ public class SelectionOpenInputHandler extends InputAdapter {
   private final Camera camera;
 
   private boolean selectionOpeningDragActive;
+  private BlockCaster blockCaster;
 
   @Override
   public boolean touchDown(int screenX, int screenY, int pointer, int button) {
     if (button == 0) {
       Ray ray = getRay(screenX, screenY, camera);
-      Vector3i selection = new BlockCaster(world).cast(ray, camera);
+      Vector3i selection = getBlockCaster().cast(ray);
 
       if (selection == null) {
         selectionThingy.setPrimarySelection(null);
@@ -50,7 +51,7 @@ public class SelectionOpenInputHandler extends InputAdapter {
   public boolean touchDragged(int screenX, int screenY, int pointer) {
     if (selectionOpeningDragActive) {
       Ray ray = getRay(screenX, screenY, camera);
-      Vector3i selection = new BlockCaster(world).cast(ray, camera);
+      Vector3i selection = getBlockCaster().cast(ray);
       selectionThingy.setPrimarySelection(selection);
     }
     return false; // Allows further processing for other drag event of other handlers.
@@ -65,4 +66,11 @@ public class SelectionOpenInputHandler extends InputAdapter {
       return false;
     }
   }
+
+  private BlockCaster getBlockCaster() {
+    if (blockCaster == null) {
+      blockCaster = new BlockCaster(world);
+    }
+    return blockCaster;
+  }
 }
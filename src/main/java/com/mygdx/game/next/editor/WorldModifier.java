@@ -1,13 +1,16 @@
 package com.mygdx.game.next.editor;
 
+import java.io.IOException;
 import java.util.function.Function;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.mygdx.game.ModernInputProcessor;
 import com.mygdx.game.World;
 import com.mygdx.game.next.blocks.Block;
 import com.mygdx.game.next.blocks.BlockOrientation;
 import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.io.WorldFormat;
 import com.mygdx.game.next.util.Vector3i;
 import com.mygdx.game.next.util.VectorUtil;
 
@@ -19,6 +22,8 @@ public class WorldModifier implements ModernInputProcessor {
 
   private final SelectionThingy selectionThingy;
 
+  private final EditHistory history;
+
   boolean shiftPressed;
   boolean ctrlPressed;
 
@@ -34,7 +39,11 @@ public class WorldModifier implements ModernInputProcessor {
         ctrlPressed = true;
         return false;
       case Input.Keys.R:
-        rotate();
+        if (ctrlPressed) {
+          rotateClipboard();
+        } else {
+          rotate();
+        }
         return true;
       case Input.Keys.FORWARD_DEL:
         delete();
@@ -49,6 +58,28 @@ public class WorldModifier implements ModernInputProcessor {
           paste();
         }
         return true;
+      case Input.Keys.S:
+        if (ctrlPressed) {
+          save();
+          return true;
+        }
+        return false;
+      case Input.Keys.Z:
+        if (ctrlPressed) {
+          if (shiftPressed) {
+            history.redo();
+          } else {
+            history.undo();
+          }
+          return true;
+        }
+        return false;
+      case Input.Keys.Y:
+        if (ctrlPressed) {
+          history.redo();
+          return true;
+        }
+        return false;
       default:
         return false;
     }
@@ -80,7 +111,7 @@ public class WorldModifier implements ModernInputProcessor {
 
         BlockProperties oldProps = chunk.getProperties();
         var newProps = oldProps.withOrientation(f.apply(oldProps.getOrientation()));
-        chunk.setProperties(newProps);
+        history.record(selection, selection, () -> world.setProperties(selection, newProps));
       }
     }
   }
@@ -88,51 +119,56 @@ public class WorldModifier implements ModernInputProcessor {
   private void delete() {
     Vector3i selectionPrimary = selectionThingy.getSelectionPrimary();
     if (selectionPrimary != null) {
+      Vector3i selectionSecondary = selectionThingy.getSelectionSecondary();
+      history.record(
+          selectionPrimary,
+          selectionSecondary,
+          () -> world.clear(selectionPrimary, selectionSecondary));
+    }
+  }
 
-      var minimum =
-          VectorUtil.getMinimum(selectionPrimary, selectionThingy.getSelectionSecondary());
-      var area =
-          VectorUtil.getAreaVector(selectionPrimary, selectionThingy.getSelectionSecondary());
-
-      for (int x = minimum.x; x <= minimum.x + area.x; x++) {
-        for (int y = minimum.y; y <= minimum.y + area.y; y++) {
-          for (int z = minimum.z; z <= minimum.z + area.z; z++) {
-            world.setBlockAt(x, y, z, null);
-          }
-        }
-      }
+  private void save() {
+    if (world.hasStorage()) {
+      world.flush();
+      return;
+    }
+    var file = Gdx.files.local(WorldFormat.DEFAULT_FILE);
+    try {
+      WorldFormat.write(world, file.file().toPath());
+    } catch (IOException e) {
+      Gdx.app.error("WorldModifier", "Saving " + file.path() + " failed", e);
     }
   }
 
-  private Block copy;
+  private Clipboard clipboard;
 
   private void copy() {
     Vector3i selection = selectionThingy.getSelectionPrimary();
     if (selection != null) {
-      Block block = world.getBlockAt(selection);
-      if (block != null) {
-        this.copy = block;
-      }
+      clipboard = Clipboard.copy(world, selection, selectionThingy.getSelectionSecondary());
     }
   }
 
+  private void rotateClipboard() {
+    if (clipboard == null) {
+      return;
+    }
+    if (shiftPressed) {
+      clipboard.rotateCounterClockwise();
+    } else {
+      clipboard.rotateClockwise();
+    }
+  }
+
+  /** Pastes with the minimum corner of the selection as the minimum corner of the clipboard. */
   private void paste() {
-    if (copy == null) {
+    if (clipboard == null) {
       return;
     }
     Vector3i selection = selectionThingy.getSelectionPrimary();
     if (selection != null) {
-      var minimum = VectorUtil.getMinimum(selection, selectionThingy.getSelectionSecondary());
-      var area = VectorUtil.getAreaVector(selection, selectionThingy.getSelectionSecondary());
-
-      for (int x = minimum.x; x <= minimum.x + area.x; x++) {
-        for (int y = minimum.y; y <= minimum.y + area.y; y++) {
-          for (int z = minimum.z; z <= minimum.z + area.z; z++) {
-            Block block = new Block(new Vector3i(x, y, z), copy.getProperties());
-            world.setBlockAt(x, y, z, block);
-          }
-        }
-      }
+      var at = VectorUtil.getMinimum(selection, selectionThingy.getSelectionSecondary());
+      history.record(at, clipboard.getPasteMax(world, at), () -> clipboard.paste(world, at));
     }
   }
 }
@@ -7,17 +7,22 @@ import com.mygdx.game.next.editor.BlockSelectionChangedEvent;
 import com.mygdx.game.next.editor.ui.components.BlockClearComponent;
 import com.mygdx.game.next.editor.ui.components.BlockTextureComponent;
 import com.mygdx.game.next.events.EventReceiver;
+import com.mygdx.game.next.render.TextureRegistry;
 
 public class BlockWindow extends VisWindow {
 
   private final EventReceiver<BlockSelectionChangedEvent> blockSelectionEventReceiver;
   private final World world;
+  private final TextureRegistry textureRegistry;
 
   public BlockWindow(
-      EventReceiver<BlockSelectionChangedEvent> blockSelectionEventReceiver, World world) {
+      EventReceiver<BlockSelectionChangedEvent> blockSelectionEventReceiver,
+      World world,
+      TextureRegistry textureRegistry) {
     super("Block Window");
     this.blockSelectionEventReceiver = blockSelectionEventReceiver;
     this.world = world;
+    this.textureRegistry = textureRegistry;
 
     TableUtils.setSpacingDefaults(this);
     columnDefaults(0).left();
@@ -31,7 +36,7 @@ public class BlockWindow extends VisWindow {
   private void addWidgets() {
     TableUtils.setSpacingDefaults(this);
 
-    add(new BlockTextureComponent(blockSelectionEventReceiver, world)).row();
+    add(new BlockTextureComponent(blockSelectionEventReceiver, world, textureRegistry)).row();
     add(new BlockClearComponent(blockSelectionEventReceiver, world)).row();
   }
 }
@@ -16,6 +16,7 @@ import com.kotcrab.vis.ui.widget.PopupMenu;
 import com.mygdx.game.World;
 import com.mygdx.game.next.editor.BlockSelectionChangedEvent;
 import com.mygdx.game.next.events.EventReceiver;
+import com.mygdx.game.next.render.TextureRegistry;
 
 import lombok.Getter;
 
@@ -24,10 +25,15 @@ public class EditorUi extends ApplicationAdapter {
   private MenuBar menuBar;
   private final EventReceiver<BlockSelectionChangedEvent> rec;
   private final World world;
+  private final TextureRegistry textureRegistry;
 
-  public EditorUi(EventReceiver<BlockSelectionChangedEvent> rec, World world) {
+  public EditorUi(
+      EventReceiver<BlockSelectionChangedEvent> rec,
+      World world,
+      TextureRegistry textureRegistry) {
     this.rec = rec;
     this.world = world;
+    this.textureRegistry = textureRegistry;
   }
 
   @Override
@@ -57,7 +63,7 @@ public class EditorUi extends ApplicationAdapter {
 
     createMenus();
 
-    stage.addActor(new BlockWindow(rec, world));
+    stage.addActor(new BlockWindow(rec, world, textureRegistry));
   }
 
   private void createMenus() {
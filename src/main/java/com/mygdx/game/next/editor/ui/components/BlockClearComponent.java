@@ -62,7 +62,8 @@ public class BlockClearComponent extends VisTable {
 
     Function<Set<Side>, Set<Side>> toggleSide =
         sides -> {
-          var n = EnumSet.copyOf(sides);
+          var n = EnumSet.noneOf(Side.class);
+          n.addAll(sides);
           if (!n.remove(side)) {
             n.add(side);
           }
@@ -74,11 +75,12 @@ public class BlockClearComponent extends VisTable {
           @Override
           public void changed(ChangeEvent event, Actor actor) {
             if (block != null) {
-              block.setProperties(
+              world.setProperties(
+                  block.getCoords(),
                   block
                       .getProperties()
                       .withSides(toggleSide.apply(block.getProperties().getSides())));
-              update();
+              setBlock(world.getBlockAt(block.getCoords()));
             }
           }
         });
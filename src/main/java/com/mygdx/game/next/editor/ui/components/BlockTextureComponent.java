@@ -17,6 +17,7 @@ import com.mygdx.game.next.blocks.Block;
 import com.mygdx.game.next.blocks.Side;
 import com.mygdx.game.next.editor.BlockSelectionChangedEvent;
 import com.mygdx.game.next.events.EventReceiver;
+import com.mygdx.game.next.render.TextureRegistry;
 
 public class BlockTextureComponent extends VisTable implements Disposable {
 
@@ -26,11 +27,15 @@ public class BlockTextureComponent extends VisTable implements Disposable {
   private final TextureRegionDrawable blank;
 
   private final World world;
+  private final TextureRegistry textureRegistry;
   private Block block;
+  private String currentTexture;
   private TextureRegionDrawable current;
 
-  public BlockTextureComponent(EventReceiver<BlockSelectionChangedEvent> rec, World world) {
+  public BlockTextureComponent(
+      EventReceiver<BlockSelectionChangedEvent> rec, World world, TextureRegistry textureRegistry) {
     this.world = world;
+    this.textureRegistry = textureRegistry;
     TableUtils.setSpacingDefaults(this);
     map = new EnumMap<>(Side.class);
     blankTexture = new Texture(IMAGE_SIZE, IMAGE_SIZE, Pixmap.Format.RGB888);
@@ -75,8 +80,10 @@ public class BlockTextureComponent extends VisTable implements Disposable {
 
   public void setBlock(Block block) {
     this.block = block;
+    releaseCurrentTexture();
     if (block != null) {
-      current = new TextureRegionDrawable(block.getTexture());
+      currentTexture = block.getTexture();
+      current = new TextureRegionDrawable(textureRegistry.acquire(currentTexture));
       current.setMinWidth(IMAGE_SIZE);
       current.setMinHeight(IMAGE_SIZE);
     } else {
@@ -92,8 +99,16 @@ public class BlockTextureComponent extends VisTable implements Disposable {
     b.setStyle(b.getStyle());
   }
 
+  private void releaseCurrentTexture() {
+    if (currentTexture != null) {
+      textureRegistry.release(currentTexture);
+      currentTexture = null;
+    }
+  }
+
   @Override
   public void dispose() {
+    releaseCurrentTexture();
     blankTexture.dispose();
   }
 }
@@ -0,0 +1,299 @@
+package com.mygdx.game.next.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.Chunk;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Palette entries and run-length encoded chunks as used by {@link WorldFormat} and {@link
+ * RegionFile}.
+ *
+ * <pre>
+ * entry  byte type, byte orientation, byte sides, float h1, float h2,
+ *        short length, length * byte texture in UTF-8,
+ *        [byte count, count * (byte side, short length, length * byte texture in UTF-8)]
+ * chunk  int cx, int cy, int cz, int runs, runs * (short block, short length)
+ * </pre>
+ *
+ * The face textures of an entry are only present if the highest bit of {@code sides} is set, so
+ * entries without them are the same as before they existed.
+ *
+ * A run covers {@code length} consecutive cells in {@link Chunk#index} order. Block {@code 0} is
+ * air, everything else is the palette entry at {@code block - 1}. Both are unsigned.
+ */
+@UtilityClass
+class ChunkCodec {
+  static final int MAX_PALETTE_SIZE = 0xFFFF;
+
+  private static final int ENTRY_FIXED_BYTES = 13;
+  private static final int FACE_TEXTURES_FLAG = 0x80;
+  private static final int MAX_TEXTURE_LENGTH = Short.MAX_VALUE;
+  private static final int CHUNK_HEADER_BYTES = 16;
+  private static final int RUN_BYTES = 4;
+
+  private static final Type[] TYPES = Type.values();
+  private static final BlockOrientation[] ORIENTATIONS = BlockOrientation.values();
+  private static final Side[] SIDES = Side.values();
+
+  /** Somewhere to write to that makes room on request. */
+  interface Sink {
+    /** @return a buffer with room for at least {@code bytes} more bytes */
+    ByteBuffer reserve(int bytes) throws IOException;
+  }
+
+  /** Somewhere to read from that fetches data on request. */
+  interface Source {
+    /** @return a buffer with at least {@code bytes} readable bytes */
+    ByteBuffer require(int bytes) throws IOException;
+  }
+
+  static void writePalette(Sink out, Palette palette) throws IOException {
+    out.reserve(4).putInt(palette.entries.size);
+    for (BlockProperties properties : palette.entries) {
+      writeEntry(out, properties);
+    }
+  }
+
+  /** @return the {@link BlockPalette} id of every entry */
+  static int[] readPalette(Source in, int maxSize) throws IOException {
+    int size = in.require(4).getInt();
+    if (size < 0 || size > maxSize) {
+      throw new IOException("Invalid palette size " + size);
+    }
+    var ids = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = BlockPalette.intern(readEntry(in));
+    }
+    return ids;
+  }
+
+  private static void writeEntry(Sink out, BlockProperties properties) throws IOException {
+    int sides = 0;
+    for (Side side : properties.getSides()) {
+      sides |= 1 << side.ordinal();
+    }
+    Map<Side, String> faceTextures = properties.getFaceTextures();
+    if (!faceTextures.isEmpty()) {
+      sides |= FACE_TEXTURES_FLAG;
+    }
+    byte[] texture = encodeTexture(properties.getTexture());
+    out.reserve(ENTRY_FIXED_BYTES + texture.length)
+        .put((byte) properties.getType().ordinal())
+        .put((byte) properties.getOrientation().ordinal())
+        .put((byte) sides)
+        .putFloat(properties.getH1())
+        .putFloat(properties.getH2())
+        .putShort((short) texture.length)
+        .put(texture);
+    if (!faceTextures.isEmpty()) {
+      out.reserve(1).put((byte) faceTextures.size());
+      for (Map.Entry<Side, String> face : faceTextures.entrySet()) {
+        byte[] faceTexture = encodeTexture(face.getValue());
+        out.reserve(3 + faceTexture.length)
+            .put((byte) face.getKey().ordinal())
+            .putShort((short) faceTexture.length)
+            .put(faceTexture);
+      }
+    }
+  }
+
+  private static byte[] encodeTexture(String texture) throws IOException {
+    byte[] bytes = texture.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_TEXTURE_LENGTH) {
+      throw new IOException("Texture path too long: " + texture);
+    }
+    return bytes;
+  }
+
+  private static BlockProperties readEntry(Source in) throws IOException {
+    ByteBuffer buffer = in.require(ENTRY_FIXED_BYTES);
+    int textureLength = buffer.getShort(buffer.position() + ENTRY_FIXED_BYTES - 2);
+    if (textureLength < 0) {
+      throw new IOException("Corrupt palette entry");
+    }
+    buffer = in.require(ENTRY_FIXED_BYTES + textureLength);
+    int type = buffer.get();
+    int orientation = buffer.get();
+    int sideMask = buffer.get();
+    float h1 = buffer.getFloat();
+    float h2 = buffer.getFloat();
+    buffer.getShort();
+    if (type < 0 || type >= TYPES.length || orientation < 0 || orientation >= ORIENTATIONS.length) {
+      throw new IOException("Corrupt palette entry");
+    }
+    // A block that cannot be meshed would only fail later, on the render thread.
+    if (!FaceGenerator.isSupported(TYPES[type])) {
+      throw new IOException("Corrupt palette entry");
+    }
+    Set<Side> sides = EnumSet.noneOf(Side.class);
+    for (Side side : SIDES) {
+      if ((sideMask & (1 << side.ordinal())) != 0) {
+        sides.add(side);
+      }
+    }
+    byte[] texture = new byte[textureLength];
+    buffer.get(texture);
+    Map<Side, String> faceTextures = Map.of();
+    if ((sideMask & FACE_TEXTURES_FLAG) != 0) {
+      faceTextures = readFaceTextures(in);
+    }
+    return new BlockProperties(
+        TYPES[type],
+        ORIENTATIONS[orientation],
+        sides,
+        h1,
+        h2,
+        new String(texture, StandardCharsets.UTF_8),
+        faceTextures);
+  }
+
+  private static Map<Side, String> readFaceTextures(Source in) throws IOException {
+    int count = in.require(1).get();
+    if (count <= 0 || count > SIDES.length) {
+      throw new IOException("Corrupt palette entry");
+    }
+    Map<Side, String> faceTextures = new EnumMap<>(Side.class);
+    for (int i = 0; i < count; i++) {
+      ByteBuffer buffer = in.require(3);
+      int side = buffer.get();
+      int length = buffer.getShort();
+      if (side < 0 || side >= SIDES.length || length < 0) {
+        throw new IOException("Corrupt palette entry");
+      }
+      byte[] texture = new byte[length];
+      in.require(length).get(texture);
+      faceTextures.put(SIDES[side], new String(texture, StandardCharsets.UTF_8));
+    }
+    return faceTextures;
+  }
+
+  /**
+   * Writes the chunk with block indices from the palette, which must already contain all of its
+   * blocks. {@code runs} is scratch space of at least {@code 2 * Chunk.VOLUME}.
+   */
+  static void writeChunk(Sink out, Chunk chunk, Palette palette, int[] runs) throws IOException {
+    int count = 0;
+    int current = palette.indexOf(chunk.getId(0));
+    int length = 1;
+    for (int i = 1; i < Chunk.VOLUME; i++) {
+      int index = palette.indexOf(chunk.getId(i));
+      if (index == current) {
+        length++;
+      } else {
+        runs[count * 2] = current;
+        runs[count * 2 + 1] = length;
+        count++;
+        current = index;
+        length = 1;
+      }
+    }
+    runs[count * 2] = current;
+    runs[count * 2 + 1] = length;
+    count++;
+
+    out.reserve(CHUNK_HEADER_BYTES)
+        .putInt(chunk.getCx())
+        .putInt(chunk.getCy())
+        .putInt(chunk.getCz())
+        .putInt(count);
+    for (int r = 0; r < count; r++) {
+      out.reserve(RUN_BYTES).putShort((short) runs[r * 2]).putShort((short) runs[r * 2 + 1]);
+    }
+  }
+
+  /**
+   * Reads a chunk and makes sure that none of its blocks lie outside of a world of the size.
+   *
+   * @param ids the {@link BlockPalette} ids of the palette entries
+   */
+  static Chunk readChunk(Source in, int[] ids, int w, int h, int d) throws IOException {
+    ByteBuffer buffer = in.require(CHUNK_HEADER_BYTES);
+    int cx = buffer.getInt();
+    int cy = buffer.getInt();
+    int cz = buffer.getInt();
+    int runCount = buffer.getInt();
+    if (runCount < 0 || runCount > Chunk.VOLUME) {
+      throw new IOException("Invalid run count " + runCount);
+    }
+    var chunk = new Chunk(cx, cy, cz);
+    int i = 0;
+    for (int r = 0; r < runCount; r++) {
+      buffer = in.require(RUN_BYTES);
+      int block = Short.toUnsignedInt(buffer.getShort());
+      int length = Short.toUnsignedInt(buffer.getShort());
+      if (block > ids.length || length > Chunk.VOLUME - i) {
+        throw new IOException("Corrupt run in chunk " + cx + "," + cy + "," + cz);
+      }
+      if (block == 0) {
+        i += length;
+        continue;
+      }
+      int id = ids[block - 1];
+      for (int end = i + length; i < end; i++) {
+        int x = (cx << Chunk.SHIFT) | (i & Chunk.MASK);
+        int y = (cy << Chunk.SHIFT) | (i >> (Chunk.SHIFT * 2));
+        int z = (cz << Chunk.SHIFT) | ((i >> Chunk.SHIFT) & Chunk.MASK);
+        if (x < 0 || x >= w || y < 0 || y >= h || z < 0 || z >= d) {
+          throw new IOException("Block outside of the world at " + x + "," + y + "," + z);
+        }
+        chunk.setId(i, id);
+      }
+    }
+    if (i != Chunk.VOLUME) {
+      throw new IOException("Runs do not cover chunk " + cx + "," + cy + "," + cz);
+    }
+    return chunk;
+  }
+
+  /** Assigns file indices to the {@link BlockPalette} ids in use, {@code 0} being air. */
+  static class Palette {
+    private final IntIntMap indices = new IntIntMap();
+    private final Array<BlockProperties> entries = new Array<>();
+    private int lastId = BlockPalette.AIR;
+    private int lastIndex;
+
+    int indexOf(int id) {
+      if (id == BlockPalette.AIR) {
+        return 0;
+      }
+      // Neighbouring cells are mostly the same, skip the lookup in that case.
+      if (id == lastId) {
+        return lastIndex;
+      }
+      int index = indices.get(id, 0);
+      if (index == 0) {
+        if (entries.size == MAX_PALETTE_SIZE) {
+          throw new IllegalStateException("More than " + MAX_PALETTE_SIZE + " distinct blocks");
+        }
+        entries.add(BlockPalette.get(id));
+        index = entries.size;
+        indices.put(id, index);
+      }
+      lastId = id;
+      lastIndex = index;
+      return index;
+    }
+
+    void addAll(Chunk chunk) {
+      for (int i = 0; i < Chunk.VOLUME; i++) {
+        indexOf(chunk.getId(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,248 @@
+package com.mygdx.game.next.io;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.badlogic.gdx.utils.Array;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.Chunk;
+
+/**
+ * Fills columns of blocks from y = 0 up to the height given by a heightmap. The first row of the
+ * heightmap is z = 0 and its first sample x = 0. Samples outside of the world are ignored and
+ * heights are clamped to it.
+ *
+ * <p>Rows are read one strip of {@link Chunk#SIZE} rows at a time. The chunks of a strip are built
+ * on a worker pool while the next strips are read, with at most two strips per worker in flight,
+ * and then merged into the world on the calling thread: blocks of the terrain replace the ones
+ * already there, everything else in the chunks it touches is kept.
+ */
+public class HeightmapImporter {
+  private final World world;
+  private final int block;
+  private final float scale;
+  private final int threads;
+
+  /** @param scale blocks per unit of height in the file */
+  public HeightmapImporter(World world, BlockProperties properties, float scale, int threads) {
+    this.world = world;
+    this.block = BlockPalette.intern(properties);
+    this.scale = scale;
+    this.threads = threads;
+  }
+
+  /** A text file with one line per row and one digit per sample, like {@code world.txt}. */
+  public void importText(Path path) throws IOException {
+    try (var reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+      importText(reader);
+    }
+  }
+
+  public void importText(BufferedReader reader) throws IOException {
+    int w = world.getW();
+    int[] line = {0};
+    run(
+        (heights, maxRows) -> {
+          for (int row = 0; row < maxRows; row++) {
+            String text = reader.readLine();
+            if (text == null) {
+              return row;
+            }
+            line[0]++;
+            int columns = Math.min(text.length(), w);
+            for (int x = 0; x < columns; x++) {
+              char c = text.charAt(x);
+              if (c < '0' || c > '9') {
+                throw new IOException("Invalid height '" + c + "' in line " + line[0]);
+              }
+              heights[row * w + x] = toBlocks(c - '0');
+            }
+          }
+          return maxRows;
+        });
+  }
+
+  /**
+   * Reads a text heightmap as {@link #importText(BufferedReader)} expects it without keeping it, to
+   * size a world for it before importing it in a second pass.
+   */
+  public static TextSize measureText(BufferedReader reader) throws IOException {
+    int width = 0;
+    int depth = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      width = Math.max(width, line.length());
+      depth++;
+    }
+    return new TextSize(width, depth);
+  }
+
+  /**
+   * @param width samples in the longest line
+   * @param depth lines, i.e. rows
+   */
+  public record TextSize(int width, int depth) {}
+
+  /**
+   * A file of unsigned big endian samples without any header, row after row.
+   *
+   * @param bytesPerSample 1 or 2
+   */
+  public void importBinary(Path path, int width, int bytesPerSample) throws IOException {
+    if (bytesPerSample != 1 && bytesPerSample != 2) {
+      throw new IllegalArgumentException("Unsupported sample size " + bytesPerSample);
+    }
+    int w = world.getW();
+    int rowBytes = width * bytesPerSample;
+    var buffer = ByteBuffer.allocateDirect(rowBytes * Chunk.SIZE);
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      run(
+          (heights, maxRows) -> {
+            buffer.clear().limit(rowBytes * maxRows);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+              // Keep reading until the strip is complete or the file ends.
+            }
+            if (buffer.position() % rowBytes != 0) {
+              throw new EOFException("Heightmap ends in the middle of a row");
+            }
+            int rows = buffer.position() / rowBytes;
+            int columns = Math.min(width, w);
+            for (int row = 0; row < rows; row++) {
+              for (int x = 0; x < columns; x++) {
+                int offset = row * rowBytes + x * bytesPerSample;
+                int value =
+                    bytesPerSample == 1
+                        ? Byte.toUnsignedInt(buffer.get(offset))
+                        : Short.toUnsignedInt(buffer.getShort(offset));
+                heights[row * w + x] = toBlocks(value);
+              }
+            }
+            return rows;
+          });
+    }
+  }
+
+  private interface RowReader {
+    /**
+     * Fills up to {@code maxRows} rows of {@code world.getW()} heights in blocks.
+     *
+     * @return the number of rows read, less than {@code maxRows} only at the end of the file
+     */
+    int read(int[] heights, int maxRows) throws IOException;
+  }
+
+  private void run(RowReader reader) throws IOException {
+    ExecutorService workers =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              Thread thread = new Thread(r, "heightmap-importer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    var pending = new ArrayDeque<Future<Array<Chunk>>>();
+    try {
+      int z = 0;
+      while (z < world.getD()) {
+        int[] heights = new int[world.getW() * Chunk.SIZE];
+        int rows = reader.read(heights, Math.min(Chunk.SIZE, world.getD() - z));
+        if (rows == 0) {
+          break;
+        }
+        int stripZ = z;
+        pending.addLast(workers.submit(() -> buildStrip(heights, stripZ, rows)));
+        z += rows;
+        while (pending.size() >= threads * 2) {
+          putChunks(pending.removeFirst());
+        }
+      }
+      while (!pending.isEmpty()) {
+        putChunks(pending.removeFirst());
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private void putChunks(Future<Array<Chunk>> strip) throws IOException {
+    try {
+      for (Chunk chunk : strip.get()) {
+        world.putChunk(merge(chunk));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Heightmap import was interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /** Puts the blocks of the chunk into a copy of the chunk of the world at the same place. */
+  private Chunk merge(Chunk terrain) {
+    Chunk existing = world.copyChunk(terrain.getCx(), terrain.getCy(), terrain.getCz());
+    if (existing == null) {
+      return terrain;
+    }
+    for (int i = 0; i < Chunk.VOLUME; i++) {
+      int id = terrain.getId(i);
+      if (id != BlockPalette.AIR) {
+        existing.setId(i, id);
+      }
+    }
+    return existing;
+  }
+
+  /** Builds the chunks of a strip of rows starting at a multiple of {@link Chunk#SIZE}. */
+  private Array<Chunk> buildStrip(int[] heights, int z0, int rows) {
+    int w = world.getW();
+    int maxHeight = 0;
+    for (int height : heights) {
+      maxHeight = Math.max(maxHeight, height);
+    }
+
+    var chunks = new Array<Chunk>();
+    int cz = Chunk.toChunk(z0);
+    for (int cx = 0; cx << Chunk.SHIFT < w; cx++) {
+      int x0 = cx << Chunk.SHIFT;
+      int columns = Math.min(Chunk.SIZE, w - x0);
+      for (int cy = 0; cy << Chunk.SHIFT < maxHeight; cy++) {
+        int y0 = cy << Chunk.SHIFT;
+        var chunk = new Chunk(cx, cy, cz);
+        for (int lz = 0; lz < rows; lz++) {
+          for (int lx = 0; lx < columns; lx++) {
+            int top = Math.min(heights[lz * w + x0 + lx], y0 + Chunk.SIZE);
+            for (int y = y0; y < top; y++) {
+              chunk.setId(Chunk.index(lx, y - y0, lz), block);
+            }
+          }
+        }
+        if (!chunk.isEmpty()) {
+          chunks.add(chunk);
+        }
+      }
+    }
+    return chunks;
+  }
+
+  private int toBlocks(int value) {
+    return Math.min(world.getH(), Math.round(value * scale));
+  }
+}
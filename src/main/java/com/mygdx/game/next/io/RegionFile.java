@@ -0,0 +1,224 @@
+package com.mygdx.game.next.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+import com.mygdx.game.next.world.Chunk;
+
+/**
+ * The chunks of one region of {@code SIZE^3} chunks in a single memory mapped file. All numbers are
+ * big endian.
+ *
+ * <pre>
+ * header  int magic, int version, SIZE^3 * (int sector, int sectors)
+ * chunk   int length, int palette count, palette count * entry, chunk
+ * </pre>
+ *
+ * A chunk occupies whole sectors of {@value #SECTOR_BYTES} bytes starting at {@code sector}, zero
+ * sectors meaning that it is empty. Every write goes to the first free sectors it fits into, and
+ * only then is the header pointed at them and the old sectors freed, so the previous version of a
+ * chunk is never overwritten. Which sectors are free is not stored but rebuilt from the header
+ * when the file is opened. See {@link ChunkCodec} for the layout of entries and chunks.
+ */
+class RegionFile implements Closeable {
+  static final int SHIFT = 3;
+  static final int SIZE = 1 << SHIFT;
+  static final int MASK = SIZE - 1;
+
+  private static final int MAGIC = 0x4257524E; // "BWRN"
+  private static final int VERSION = 1;
+  private static final int SECTOR_BYTES = 4096;
+  private static final int HEADER_BYTES = 8 + SIZE * SIZE * SIZE * 8;
+  private static final int HEADER_SECTORS = (HEADER_BYTES + SECTOR_BYTES - 1) / SECTOR_BYTES;
+  private static final int GROWTH_SECTORS = 256;
+  private static final int MAX_SECTORS = Integer.MAX_VALUE / SECTOR_BYTES;
+
+  private final FileChannel channel;
+  private MappedByteBuffer map;
+  /** Sectors that are mapped, at least the ones in use. */
+  private int capacity;
+  /** The sectors of the header and of all chunks. */
+  private final BitSet used = new BitSet();
+
+  private final Buffer out = new Buffer();
+  private final int[] runs = new int[Chunk.VOLUME * 2];
+
+  RegionFile(Path path) throws IOException {
+    channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long size = channel.size();
+      if (size == 0) {
+        map(HEADER_SECTORS + GROWTH_SECTORS);
+        map.putInt(0, MAGIC);
+        map.putInt(4, VERSION);
+      } else {
+        if (size < HEADER_BYTES || size % SECTOR_BYTES != 0 || size / SECTOR_BYTES > MAX_SECTORS) {
+          throw new IOException("Invalid region file size " + size);
+        }
+        map((int) (size / SECTOR_BYTES));
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+          throw new IOException("Not a region file or unsupported version: " + path);
+        }
+        for (int i = 0; i < SIZE * SIZE * SIZE; i++) {
+          int sector = map.getInt(8 + i * 8);
+          int sectors = map.getInt(12 + i * 8);
+          // Corrupt entries are reported when the chunk is read.
+          if (isValid(sector, sectors)) {
+            used.set(sector, sector + sectors);
+          }
+        }
+      }
+      used.set(0, HEADER_SECTORS);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** @return the stored chunk or {@code null} if it is empty */
+  Chunk read(int cx, int cy, int cz, int w, int h, int d) throws IOException {
+    int header = headerOffset(cx, cy, cz);
+    int sector = map.getInt(header);
+    int sectors = map.getInt(header + 4);
+    if (sectors == 0) {
+      return null;
+    }
+    if (sector < HEADER_SECTORS || sectors < 0 || sector + sectors > capacity) {
+      throw new IOException("Corrupt region header for chunk " + cx + "," + cy + "," + cz);
+    }
+    ByteBuffer data = map.slice(sector * SECTOR_BYTES, sectors * SECTOR_BYTES);
+    int length = data.getInt();
+    if (length < 0 || length > data.remaining()) {
+      throw new IOException("Corrupt length of chunk " + cx + "," + cy + "," + cz);
+    }
+    data.limit(4 + length);
+    ChunkCodec.Source in =
+        bytes -> {
+          if (data.remaining() < bytes) {
+            throw new EOFException("Unexpected end of chunk " + cx + "," + cy + "," + cz);
+          }
+          return data;
+        };
+
+    int[] palette = ChunkCodec.readPalette(in, Chunk.VOLUME);
+    Chunk chunk = ChunkCodec.readChunk(in, palette, w, h, d);
+    if (chunk.getCx() != cx || chunk.getCy() != cy || chunk.getCz() != cz) {
+      throw new IOException("Expected chunk " + cx + "," + cy + "," + cz + " in region file");
+    }
+    return chunk;
+  }
+
+  void write(Chunk chunk) throws IOException {
+    var palette = new ChunkCodec.Palette();
+    palette.addAll(chunk);
+    out.clear();
+    out.reserve(4).putInt(0);
+    ChunkCodec.writePalette(out, palette);
+    ChunkCodec.writeChunk(out, chunk, palette, runs);
+    ByteBuffer buffer = out.get();
+    buffer.putInt(0, buffer.position() - 4);
+    buffer.flip();
+
+    int header = headerOffset(chunk.getCx(), chunk.getCy(), chunk.getCz());
+    int needed = (buffer.remaining() + SECTOR_BYTES - 1) / SECTOR_BYTES;
+    int sector = allocate(needed);
+    map.put(sector * SECTOR_BYTES, buffer, 0, buffer.remaining());
+    release(header);
+    map.putInt(header, sector);
+    map.putInt(header + 4, needed);
+  }
+
+  void remove(int cx, int cy, int cz) {
+    int header = headerOffset(cx, cy, cz);
+    release(header);
+    map.putInt(header, 0);
+    map.putInt(header + 4, 0);
+  }
+
+  /** Marks the first free run of {@code sectors} as used, growing the file if needed. */
+  private int allocate(int sectors) throws IOException {
+    int start = used.nextClearBit(HEADER_SECTORS);
+    int next = used.nextSetBit(start);
+    while (next >= 0 && next - start < sectors) {
+      start = used.nextClearBit(next);
+      next = used.nextSetBit(start);
+    }
+    ensureCapacity(start + sectors);
+    used.set(start, start + sectors);
+    return start;
+  }
+
+  /** Frees the sectors the header entry points to, which it must stop doing right after. */
+  private void release(int header) {
+    int sector = map.getInt(header);
+    int sectors = map.getInt(header + 4);
+    if (isValid(sector, sectors)) {
+      used.clear(sector, sector + sectors);
+    }
+  }
+
+  private boolean isValid(int sector, int sectors) {
+    return sectors > 0 && sector >= HEADER_SECTORS && sector <= capacity - sectors;
+  }
+
+  void flush() {
+    map.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    map.force();
+    channel.close();
+  }
+
+  private void ensureCapacity(int sectors) throws IOException {
+    if (sectors > capacity) {
+      if (sectors > MAX_SECTORS) {
+        throw new IOException("Region file is full");
+      }
+      map.force();
+      map((int) Math.min((long) sectors + GROWTH_SECTORS, MAX_SECTORS));
+    }
+  }
+
+  /** Mapping beyond the end of the file extends it. */
+  private void map(int sectors) throws IOException {
+    map = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) sectors * SECTOR_BYTES);
+    capacity = sectors;
+  }
+
+  private static int headerOffset(int cx, int cy, int cz) {
+    return 8 + (((cy & MASK) << (SHIFT * 2)) | ((cz & MASK) << SHIFT) | (cx & MASK)) * 8;
+  }
+
+  /** Heap buffer that chunks are encoded into before they are copied into the file. */
+  private static class Buffer implements ChunkCodec.Sink {
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 14);
+
+    void clear() {
+      buffer.clear();
+    }
+
+    ByteBuffer get() {
+      return buffer;
+    }
+
+    @Override
+    public ByteBuffer reserve(int bytes) {
+      if (buffer.remaining() < bytes) {
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+        buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+      }
+      return buffer;
+    }
+  }
+}
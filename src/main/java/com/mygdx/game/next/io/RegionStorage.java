@@ -0,0 +1,190 @@
+package com.mygdx.game.next.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.mygdx.game.World;
+import com.mygdx.game.next.world.Chunk;
+
+import lombok.Getter;
+
+/**
+ * Chunks of a world in a directory of memory mapped {@link RegionFile}s, so that only the chunks
+ * in use have to be on the heap. Region files are opened on demand and the least recently used
+ * ones are closed again once more than {@value #MAX_OPEN_REGIONS} are open.
+ *
+ * <p>I/O errors are rethrown as {@link UncheckedIOException} because they surface in the middle of
+ * {@link com.mygdx.game.World#getBlockAt} and friends.
+ */
+public class RegionStorage implements Disposable {
+  public static final String DEFAULT_DIRECTORY = "regions";
+
+  private static final String META_FILE = "world.meta";
+  private static final int MAGIC = 0x4257524D; // "BWRM"
+  private static final int VERSION = 1;
+  private static final int MAX_OPEN_REGIONS = 16;
+
+  private final Path directory;
+  @Getter private final int w;
+  @Getter private final int h;
+  @Getter private final int d;
+  private final Map<Long, RegionFile> regions = new LinkedHashMap<>(16, 0.75f, true);
+
+  private RegionStorage(Path directory, int w, int h, int d) {
+    this.directory = directory;
+    this.w = w;
+    this.h = h;
+    this.d = d;
+  }
+
+  /** Creates empty storage for a world of the given size in a directory that has none yet. */
+  public static RegionStorage create(Path directory, int w, int h, int d) throws IOException {
+    checkNoStorage(directory);
+    Files.createDirectories(directory);
+    writeMeta(directory, w, h, d);
+    return new RegionStorage(directory, w, h, d);
+  }
+
+  /**
+   * Creates storage in a directory that has none yet and writes the loaded chunks of the world into
+   * it, e.g. to convert a world read with {@link WorldFormat}. The directory only becomes a region
+   * directory once all chunks are written, so a failed conversion is not picked up later.
+   */
+  public static RegionStorage create(Path directory, World world) throws IOException {
+    checkNoStorage(directory);
+    Files.createDirectories(directory);
+    var storage = new RegionStorage(directory, world.getW(), world.getH(), world.getD());
+    try {
+      for (Chunk chunk : world.getChunks()) {
+        storage.save(chunk);
+      }
+      storage.flush();
+      writeMeta(directory, storage.w, storage.h, storage.d);
+    } catch (IOException | RuntimeException e) {
+      storage.dispose();
+      throw e;
+    }
+    return storage;
+  }
+
+  public static RegionStorage open(Path directory) throws IOException {
+    var buffer = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(META_FILE)));
+    if (buffer.remaining() != 20 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+      throw new IOException("Not a region directory or unsupported version: " + directory);
+    }
+    return new RegionStorage(directory, buffer.getInt(), buffer.getInt(), buffer.getInt());
+  }
+
+  public static boolean exists(Path directory) {
+    return Files.isRegularFile(directory.resolve(META_FILE));
+  }
+
+  /** @return the stored chunk or {@code null} if it holds no blocks */
+  public Chunk load(int cx, int cy, int cz) {
+    try {
+      RegionFile region = region(cx, cy, cz, false);
+      if (region == null) {
+        return null;
+      }
+      Chunk chunk = region.read(cx, cy, cz, w, h, d);
+      if (chunk != null) {
+        chunk.clearDirty();
+      }
+      return chunk;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Writes the chunk back, in place if possible. */
+  public void save(Chunk chunk) {
+    try {
+      if (chunk.isEmpty()) {
+        remove(chunk.getCx(), chunk.getCy(), chunk.getCz());
+      } else {
+        region(chunk.getCx(), chunk.getCy(), chunk.getCz(), true).write(chunk);
+      }
+      chunk.clearDirty();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void remove(int cx, int cy, int cz) {
+    try {
+      RegionFile region = region(cx, cy, cz, false);
+      if (region != null) {
+        region.remove(cx, cy, cz);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Forces everything written so far to disk. */
+  public void flush() {
+    for (RegionFile region : regions.values()) {
+      region.flush();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    IOException failure = null;
+    for (RegionFile region : regions.values()) {
+      try {
+        region.close();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    regions.clear();
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+
+  private static void checkNoStorage(Path directory) throws IOException {
+    Path meta = directory.resolve(META_FILE);
+    if (Files.exists(meta)) {
+      throw new FileAlreadyExistsException(meta.toString());
+    }
+  }
+
+  private static void writeMeta(Path directory, int w, int h, int d) throws IOException {
+    var buffer = ByteBuffer.allocate(20);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(w).putInt(h).putInt(d);
+    Files.write(directory.resolve(META_FILE), buffer.array());
+  }
+
+  private RegionFile region(int cx, int cy, int cz, boolean create) throws IOException {
+    int rx = cx >> RegionFile.SHIFT;
+    int ry = cy >> RegionFile.SHIFT;
+    int rz = cz >> RegionFile.SHIFT;
+    long key = Chunk.key(rx, ry, rz);
+    RegionFile region = regions.get(key);
+    if (region == null) {
+      Path path = directory.resolve("r." + rx + "." + ry + "." + rz + ".bin");
+      if (!create && !Files.exists(path)) {
+        return null;
+      }
+      region = new RegionFile(path);
+      regions.put(key, region);
+      if (regions.size() > MAX_OPEN_REGIONS) {
+        Iterator<RegionFile> eldest = regions.values().iterator();
+        RegionFile closing = eldest.next();
+        eldest.remove();
+        closing.close();
+      }
+    }
+    return region;
+  }
+}
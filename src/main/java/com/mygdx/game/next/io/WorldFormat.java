@@ -0,0 +1,165 @@
+package com.mygdx.game.next.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.world.Chunk;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Binary save format of a {@link World}. All numbers are big endian.
+ *
+ * <pre>
+ * header   int magic, int version, int w, int h, int d
+ * palette  int count, count * entry
+ * chunks   int count, count * chunk
+ * </pre>
+ *
+ * See {@link ChunkCodec} for the layout of entries and chunks. Reading and writing stream through a
+ * small buffer, so the file is never held in memory.
+ */
+@UtilityClass
+public class WorldFormat {
+  public static final String DEFAULT_FILE = "world.bin";
+
+  private static final int MAGIC = 0x42574C44; // "BWLD"
+  private static final int VERSION = 1;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Writes to a temporary file first so a failed save does not destroy the previous one. */
+  public static void write(World world, Path path) throws IOException {
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (var channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      write(world, channel);
+    }
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public static void write(World world, WritableByteChannel channel) throws IOException {
+    var palette = new ChunkCodec.Palette();
+    int chunkCount = 0;
+    for (Chunk chunk : world.getChunks()) {
+      palette.addAll(chunk);
+      chunkCount++;
+    }
+
+    var out = new Output(channel);
+    out.reserve(20)
+        .putInt(MAGIC)
+        .putInt(VERSION)
+        .putInt(world.getW())
+        .putInt(world.getH())
+        .putInt(world.getD());
+
+    ChunkCodec.writePalette(out, palette);
+
+    out.reserve(4).putInt(chunkCount);
+    int[] runs = new int[Chunk.VOLUME * 2];
+    for (Chunk chunk : world.getChunks()) {
+      ChunkCodec.writeChunk(out, chunk, palette, runs);
+    }
+    out.flush();
+  }
+
+  public static World read(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel);
+    }
+  }
+
+  public static World read(ReadableByteChannel channel) throws IOException {
+    var in = new Input(channel);
+    ByteBuffer header = in.require(20);
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a world file");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported world file version " + version);
+    }
+    int w = header.getInt();
+    int h = header.getInt();
+    int d = header.getInt();
+    if (w <= 0 || h <= 0 || d <= 0) {
+      throw new IOException("Invalid world size " + w + "x" + h + "x" + d);
+    }
+
+    int[] palette = ChunkCodec.readPalette(in, ChunkCodec.MAX_PALETTE_SIZE);
+
+    var world = new World(w, h, d);
+    try {
+      int chunkCount = in.require(4).getInt();
+      for (int c = 0; c < chunkCount; c++) {
+        world.putChunk(ChunkCodec.readChunk(in, palette, w, h, d));
+      }
+    } catch (IOException | RuntimeException e) {
+      world.dispose();
+      throw e;
+    }
+    return world;
+  }
+
+  private static class Output implements ChunkCodec.Sink {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    Output(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public ByteBuffer reserve(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+      return buffer;
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  private static class Input implements ChunkCodec.Source {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    Input(ReadableByteChannel channel) {
+      this.channel = channel;
+      buffer.limit(0);
+    }
+
+    @Override
+    public ByteBuffer require(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        buffer.compact();
+        while (buffer.position() < bytes) {
+          if (channel.read(buffer) < 0) {
+            throw new EOFException("Unexpected end of world file");
+          }
+        }
+        buffer.flip();
+      }
+      return buffer;
+    }
+  }
+}
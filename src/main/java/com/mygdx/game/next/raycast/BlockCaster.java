@@ -1,62 +1,233 @@
 package com.mygdx.game.next.raycast;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
 import com.mygdx.game.World;
 import com.mygdx.game.next.blocks.Block;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
 import com.mygdx.game.next.util.Vector3i;
 
+/**
+ * Finds the first block along a ray by walking the grid cell by cell (Amanatides & Woo, "A Fast
+ * Voxel Traversal Algorithm for Ray Tracing"). Only the cells the ray passes through are visited
+ * and nothing is allocated.
+ *
+ * <p>Blocks that do not fill their cell are only hit if the ray hits one of their triangles, so
+ * one can click through the empty part of a slope or next to a pillar.
+ */
 public class BlockCaster {
 
   private final World world;
+  private final RayHit tmpHit = new RayHit();
+  private final Vector3 v1 = new Vector3();
+  private final Vector3 v2 = new Vector3();
+  private final Vector3 v3 = new Vector3();
+  private final Vector3 intersection = new Vector3();
+  private final Vector3 edge = new Vector3();
+  private final Vector3 normal = new Vector3();
+  /** Normal of the triangle found by the last {@link #intersectShape}, not normalized. */
+  private final Vector3 triangleNormal = new Vector3();
 
   public BlockCaster(World world) {
     this.world = world;
   }
 
-  public Vector3i cast(Ray ray, Camera camera) {
-    List<BoundingBox> candidates = getCandidates(ray);
-
-    return candidates.stream()
-        .min(
-            (a, b) ->
-                Float.compare(
-                    a.getCenter(new Vector3()).dst2(camera.position),
-                    b.getCenter(new Vector3()).dst2(camera.position)))
-        .map(
-            bb -> {
-              var v = bb.getMin(new Vector3());
-              return new Vector3i(
-                  (int) (v.x / Block.S), (int) (v.y / Block.S), (int) (v.z / Block.S));
-            })
-        .orElse(null);
-  }
-
-  private List<BoundingBox> getCandidates(Ray ray) {
-    List<BoundingBox> candidates = new ArrayList<>();
-    for (int x = 0; x < world.getW(); x++) {
-      for (int z = 0; z < world.getD(); z++) {
-        for (int y = 0; y < world.getH(); y++) {
-          if (world.getBlockAt(x, y, z) != null) {
-            BoundingBox box =
-                new BoundingBox(
-                    new Vector3(x * Block.S, y * Block.S, z * Block.S),
-                    new Vector3((x + 1) * Block.S, (y + 1) * Block.S, (z + 1) * Block.S));
-            boolean intersects = Intersector.intersectRayBoundsFast(ray, box);
-
-            if (intersects) {
-              candidates.add(box);
-            }
-          }
+  /**
+   * @return a copy of the cell of the first block hit by the ray, or {@code null}
+   */
+  public Vector3i cast(Ray ray) {
+    return cast(ray, tmpHit) ? tmpHit.cell.cpy() : null;
+  }
+
+  /**
+   * Casts a ray with a normalized direction into the world.
+   *
+   * @return whether a block was hit, in which case {@code hit} is filled in
+   */
+  public boolean cast(Ray ray, RayHit hit) {
+    float ox = ray.origin.x;
+    float oy = ray.origin.y;
+    float oz = ray.origin.z;
+    float dx = ray.direction.x;
+    float dy = ray.direction.y;
+    float dz = ray.direction.z;
+    int w = world.getW();
+    int h = world.getH();
+    int d = world.getD();
+
+    // Clip the ray against the bounds of the world.
+    float tEnter = 0;
+    float tExit = Float.POSITIVE_INFINITY;
+    int enterAxis = -1;
+    for (int axis = 0; axis < 3; axis++) {
+      float o = axis == 0 ? ox : axis == 1 ? oy : oz;
+      float dir = axis == 0 ? dx : axis == 1 ? dy : dz;
+      float max = (axis == 0 ? w : axis == 1 ? h : d) * Block.S;
+      if (dir == 0) {
+        if (o < 0 || o > max) {
+          return false;
         }
+        continue;
+      }
+      float t1 = (0 - o) / dir;
+      float t2 = (max - o) / dir;
+      if (t1 > t2) {
+        float t = t1;
+        t1 = t2;
+        t2 = t;
+      }
+      if (t1 > tEnter) {
+        tEnter = t1;
+        enterAxis = axis;
+      }
+      tExit = Math.min(tExit, t2);
+    }
+    // A zero direction leaves the exit at infinity and would never step out of the world.
+    if (tExit < tEnter || tExit == Float.POSITIVE_INFINITY) {
+      return false;
+    }
+
+    int cx = clamp((int) Math.floor((ox + dx * tEnter) / Block.S), w);
+    int cy = clamp((int) Math.floor((oy + dy * tEnter) / Block.S), h);
+    int cz = clamp((int) Math.floor((oz + dz * tEnter) / Block.S), d);
+    int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+    int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+    int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+    float tDeltaX = stepX == 0 ? Float.POSITIVE_INFINITY : Block.S / Math.abs(dx);
+    float tDeltaY = stepY == 0 ? Float.POSITIVE_INFINITY : Block.S / Math.abs(dy);
+    float tDeltaZ = stepZ == 0 ? Float.POSITIVE_INFINITY : Block.S / Math.abs(dz);
+    float tMaxX = nextBoundary(ox, dx, cx, stepX);
+    float tMaxY = nextBoundary(oy, dy, cy, stepY);
+    float tMaxZ = nextBoundary(oz, dz, cz, stepZ);
+
+    float t = tEnter;
+    int nx = enterAxis == 0 ? -stepX : 0;
+    int ny = enterAxis == 1 ? -stepY : 0;
+    int nz = enterAxis == 2 ? -stepZ : 0;
+    while (true) {
+      BlockProperties properties = world.getProperties(cx, cy, cz);
+      if (properties != null) {
+        if (properties.getType() == Type.QUBE) {
+          hit.cell.set(cx, cy, cz);
+          hit.normal.set(nx, ny, nz);
+          hit.distance = t;
+          return true;
+        }
+        float distance = intersectShape(ray, properties, cx, cy, cz);
+        if (distance >= 0) {
+          hit.cell.set(cx, cy, cz);
+          setFacingAxis(hit.normal, triangleNormal, ray.direction);
+          hit.distance = distance;
+          return true;
+        }
+      }
+
+      if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+        cx += stepX;
+        t = tMaxX;
+        tMaxX += tDeltaX;
+        nx = -stepX;
+        ny = 0;
+        nz = 0;
+      } else if (tMaxY < tMaxZ) {
+        cy += stepY;
+        t = tMaxY;
+        tMaxY += tDeltaY;
+        nx = 0;
+        ny = -stepY;
+        nz = 0;
+      } else {
+        cz += stepZ;
+        t = tMaxZ;
+        tMaxZ += tDeltaZ;
+        nx = 0;
+        ny = 0;
+        nz = -stepZ;
+      }
+
+      if (t > tExit || cx < 0 || cx >= w || cy < 0 || cy >= h || cz < 0 || cz >= d) {
+        return false;
       }
     }
-    return candidates;
+  }
+
+  /**
+   * @return the distance to the nearest triangle of the block that the ray hits or {@code -1}; the
+   *     normal of that triangle is left in {@link #triangleNormal}
+   */
+  private float intersectShape(Ray ray, BlockProperties properties, int cx, int cy, int cz) {
+    var shape = FaceGenerator.getPackedWithAllSides(properties);
+    float[] vertices = shape.vertices();
+    short[] indices = shape.indices();
+    float ox = cx * Block.S;
+    float oy = cy * Block.S;
+    float oz = cz * Block.S;
+    float nearest = -1;
+    for (int i = 0; i + 2 < indices.length; i += 3) {
+      setVertex(v1, vertices, indices[i], ox, oy, oz);
+      setVertex(v2, vertices, indices[i + 1], ox, oy, oz);
+      setVertex(v3, vertices, indices[i + 2], ox, oy, oz);
+      normal.set(v2).sub(v1).crs(edge.set(v3).sub(v1));
+      // Degenerate triangles, like the sides of slopes without a base, "hit" at the origin.
+      if (normal.isZero()) {
+        continue;
+      }
+      if (Intersector.intersectRayTriangle(ray, v1, v2, v3, intersection)) {
+        float distance = intersection.dst(ray.origin);
+        if (nearest < 0 || distance < nearest) {
+          nearest = distance;
+          triangleNormal.set(normal);
+        }
+      }
+    }
+    return nearest;
+  }
+
+  /**
+   * Sets {@code out} to the axis that {@code normal} points along most, among the axes on which it
+   * faces the ray, so the cell in front of the hit is on the side the ray came from. Zero if the
+   * ray only grazes the triangle.
+   */
+  private static void setFacingAxis(Vector3i out, Vector3 normal, Vector3 direction) {
+    float sign = normal.dot(direction) > 0 ? -1 : 1;
+    float x = sign * normal.x;
+    float y = sign * normal.y;
+    float z = sign * normal.z;
+    float ax = x * direction.x < 0 ? Math.abs(x) : 0;
+    float ay = y * direction.y < 0 ? Math.abs(y) : 0;
+    float az = z * direction.z < 0 ? Math.abs(z) : 0;
+    if (ax > 0 && ax >= ay && ax >= az) {
+      out.set(x > 0 ? 1 : -1, 0, 0);
+    } else if (ay > 0 && ay >= az) {
+      out.set(0, y > 0 ? 1 : -1, 0);
+    } else if (az > 0) {
+      out.set(0, 0, z > 0 ? 1 : -1);
+    } else {
+      out.set(0, 0, 0);
+    }
+  }
+
+  private static void setVertex(
+      Vector3 v, float[] vertices, short index, float ox, float oy, float oz) {
+    int o = (index & 0xFFFF) * MeshBuffer.STRIDE;
+    v.set(vertices[o] + ox, vertices[o + 1] + oy, vertices[o + 2] + oz);
+  }
+
+  private static float nextBoundary(float origin, float direction, int cell, int step) {
+    if (step > 0) {
+      return ((cell + 1) * Block.S - origin) / direction;
+    } else if (step < 0) {
+      return (cell * Block.S - origin) / direction;
+    } else {
+      return Float.POSITIVE_INFINITY;
+    }
+  }
+
+  private static int clamp(int cell, int size) {
+    return Math.max(0, Math.min(size - 1, cell));
   }
 }
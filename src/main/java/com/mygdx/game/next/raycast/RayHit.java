@@ -0,0 +1,20 @@
+package com.mygdx.game.next.raycast;
+
+import com.mygdx.game.next.util.Vector3i;
+
+/** Result of {@link BlockCaster#cast(com.badlogic.gdx.math.collision.Ray, RayHit)}; reusable. */
+public class RayHit {
+  /** The cell of the block that was hit. */
+  public final Vector3i cell = new Vector3i();
+  /**
+   * Outward normal of the surface that was hit, facing the ray. For cubes this is the cell face the
+   * ray entered through, or zero if the ray started inside the cell; for other shapes it is the
+   * axis closest to the normal of the triangle that was hit which still faces the ray.
+   */
+  public final Vector3i normal = new Vector3i();
+  /**
+   * Distance from the ray origin to the surface that was hit, in world units. For cubes that is
+   * where the ray entered the cell.
+   */
+  public float distance;
+}
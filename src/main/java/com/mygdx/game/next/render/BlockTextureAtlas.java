@@ -0,0 +1,138 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.mygdx.game.next.blocks.Block;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.world.AtlasLayout;
+import com.mygdx.game.next.world.BlockPalette;
+
+import lombok.Getter;
+
+/**
+ * Packs the textures of blocks into a few large pages, so a chunk needs one draw call per page
+ * instead of one per texture. Textures can be added later; regions that are packed already never
+ * move, but every addition comes with a new {@link #getLayout() layout}. Must be used on the GL
+ * thread.
+ */
+public class BlockTextureAtlas implements Disposable {
+  private static final int PAGE_SIZE = 2048;
+  /** Texels between regions, filled with the border of the region to avoid bleeding. */
+  private static final int PADDING = 2;
+
+  private final PixmapPacker packer =
+      new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, true);
+  private final Array<Material> materials = new Array<>();
+  @Getter private AtlasLayout layout = AtlasLayout.UNPACKED;
+  /** Palette ids below this had their textures added by {@link #addPaletteTextures()}. */
+  private int packedPaletteSize;
+
+  public BlockTextureAtlas() {
+    add(Array.with(Block.DEFAULT_TEXTURE));
+  }
+
+  /**
+   * Packs the textures that are not in the atlas yet. Textures that cannot be loaded are left out
+   * and show the default texture.
+   *
+   * @return whether anything was added
+   */
+  public boolean add(Iterable<String> textures) {
+    boolean added = false;
+    for (String texture : textures) {
+      if (texture == null || packer.getRect(texture) != null) {
+        continue;
+      }
+      Pixmap pixmap;
+      try {
+        pixmap = new Pixmap(Gdx.files.internal(texture));
+      } catch (GdxRuntimeException e) {
+        Gdx.app.error("BlockTextureAtlas", "Loading texture " + texture + " failed", e);
+        continue;
+      }
+      try {
+        packer.pack(texture, pixmap);
+        added = true;
+      } finally {
+        pixmap.dispose();
+      }
+    }
+    if (added) {
+      var filter = Texture.TextureFilter.Nearest;
+      packer.updatePageTextures(filter, filter, false);
+      for (int i = materials.size; i < packer.getPages().size; i++) {
+        materials.add(
+            new Material(TextureAttribute.createDiffuse(packer.getPages().get(i).getTexture())));
+      }
+      layout = createLayout();
+    }
+    return added;
+  }
+
+  /**
+   * Adds the textures of blocks that were interned in the {@link BlockPalette} since the last call.
+   *
+   * @return whether anything was added, so meshes need the new layout
+   */
+  public boolean addPaletteTextures() {
+    int paletteSize = BlockPalette.size();
+    if (paletteSize == packedPaletteSize) {
+      return false;
+    }
+    var textures = new Array<String>();
+    for (int id = Math.max(packedPaletteSize, 1); id < paletteSize; id++) {
+      BlockProperties properties = BlockPalette.get(id);
+      textures.add(properties.getTexture());
+      for (String texture : properties.getFaceTextures().values()) {
+        textures.add(texture);
+      }
+    }
+    packedPaletteSize = paletteSize;
+    return add(textures);
+  }
+
+  public Material getMaterial(int page) {
+    return materials.get(page);
+  }
+
+  public Texture getTexture(int page) {
+    return packer.getPages().get(page).getTexture();
+  }
+
+  private AtlasLayout createLayout() {
+    var regions = new ObjectMap<String, AtlasLayout.Region>();
+    var pages = packer.getPages();
+    for (int page = 0; page < pages.size; page++) {
+      for (ObjectMap.Entry<String, PixmapPacker.PixmapPackerRectangle> entry :
+          pages.get(page).getRects()) {
+        regions.put(entry.key, toRegion(page, entry.value));
+      }
+    }
+    var fallback = regions.get(Block.DEFAULT_TEXTURE);
+    return new AtlasLayout(regions, fallback != null ? fallback : AtlasLayout.UNPACKED.get(""));
+  }
+
+  private static AtlasLayout.Region toRegion(int page, Rectangle rect) {
+    return new AtlasLayout.Region(
+        page,
+        rect.x / PAGE_SIZE,
+        rect.y / PAGE_SIZE,
+        (rect.x + rect.width) / PAGE_SIZE,
+        (rect.y + rect.height) / PAGE_SIZE);
+  }
+
+  @Override
+  public void dispose() {
+    packer.dispose();
+    materials.clear();
+  }
+}
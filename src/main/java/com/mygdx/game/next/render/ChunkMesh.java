@@ -0,0 +1,80 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+import com.mygdx.game.next.world.AtlasLayout;
+import com.mygdx.game.next.world.Chunk;
+import com.mygdx.game.next.world.ChunkMeshData;
+import com.mygdx.game.next.world.ChunkMesher;
+
+import lombok.Getter;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * The uploaded geometry of a single chunk as it was at {@link #getVersion()}. Must be created and
+ * disposed on the GL thread. The materials belong to the {@link BlockTextureAtlas}. Needs the
+ * shaders of the {@link ChunkShaderProvider}.
+ */
+public class ChunkMesh extends FrustumCuller.Item implements RenderableProvider, Disposable {
+  private final Model model;
+  private final ModelInstance modelInstance;
+  @Getter private final Chunk chunk;
+  @Getter private final int version;
+  /** The atlas layout the texture coordinates were computed for. */
+  @Getter private final AtlasLayout layout;
+  @Getter private final int lod;
+  /** World space box around the geometry, invalid if there is none. */
+  @Getter private final BoundingBox bounds;
+
+  public ChunkMesh(ChunkMeshData data, BlockTextureAtlas atlas) {
+    this.chunk = data.getChunk();
+    this.version = data.getVersion();
+    this.layout = data.getLayout();
+    this.lod = data.getLod();
+    this.bounds = data.getBounds();
+
+    ModelBuilder modelBuilder = new ModelBuilder();
+    modelBuilder.begin();
+    int partCount = 0;
+    for (ChunkMeshData.Part part : data.getParts()) {
+      Material material = atlas.getMaterial(part.page());
+      Mesh mesh =
+          new Mesh(
+              true,
+              part.vertices().length / ChunkMesher.STRIDE,
+              part.indices().length,
+              ChunkMesher.ATTRIBUTES);
+      mesh.setVertices(part.vertices());
+      mesh.setIndices(part.indices());
+      modelBuilder.part("chunk" + partCount++, mesh, GL20.GL_TRIANGLES, material);
+    }
+    model = modelBuilder.end();
+
+    float cx = chunk.getCx() * Chunk.SIZE * S;
+    float cy = chunk.getCy() * Chunk.SIZE * S;
+    float cz = chunk.getCz() * Chunk.SIZE * S;
+    this.modelInstance = new ModelInstance(model, new Matrix4().translate(cx, cy, cz));
+  }
+
+  @Override
+  public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+    modelInstance.getRenderables(renderables, pool);
+  }
+
+  @Override
+  public void dispose() {
+    model.dispose();
+  }
+}
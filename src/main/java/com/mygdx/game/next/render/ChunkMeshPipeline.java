@@ -0,0 +1,140 @@
+package com.mygdx.game.next.render;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.Queue;
+import com.mygdx.game.next.world.AtlasLayout;
+import com.mygdx.game.next.world.BlockView;
+import com.mygdx.game.next.world.Chunk;
+import com.mygdx.game.next.world.ChunkLod;
+import com.mygdx.game.next.world.ChunkMeshData;
+import com.mygdx.game.next.world.ChunkMesher;
+import com.mygdx.game.next.world.ChunkSnapshot;
+
+/**
+ * Builds chunk meshes in the background. Vertex data is generated from a {@link ChunkSnapshot} on a
+ * worker pool and handed back to the GL thread with {@link
+ * com.badlogic.gdx.Application#postRunnable}, where {@link #upload} turns at most {@code
+ * uploadBudget} results per frame into GPU meshes.
+ */
+public class ChunkMeshPipeline implements Disposable {
+  private final ExecutorService workers;
+  private final ThreadLocal<ChunkMesher> meshers = ThreadLocal.withInitial(ChunkMesher::new);
+  private final int uploadBudget;
+
+  /** The version and level of detail last sent to the workers, per chunk. GL thread only. */
+  private final ObjectIntMap<Chunk> requested = new ObjectIntMap<>();
+  /** Finished vertex data waiting for upload. GL thread only. */
+  private final Queue<ChunkMeshData> ready = new Queue<>();
+  /** Chunks whose build failed, to be requested again. GL thread only. */
+  private final Queue<Chunk> failed = new Queue<>();
+
+  private volatile boolean disposed;
+
+  public ChunkMeshPipeline(int threads, int uploadBudget) {
+    this.uploadBudget = uploadBudget;
+    this.workers =
+        Executors.newFixedThreadPool(
+            threads,
+            r -> {
+              Thread thread = new Thread(r, "chunk-mesher");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Schedules a rebuild of the chunk unless one for its current version and the level of detail is
+   * already underway.
+   *
+   * @param lod one of the levels of {@link ChunkLod}
+   */
+  public void request(Chunk chunk, BlockView world, AtlasLayout layout, int lod) {
+    int key = chunk.getVersion() * ChunkLod.LEVELS + lod;
+    if (requested.get(chunk, -1) == key) {
+      return;
+    }
+    requested.put(chunk, key);
+    var snapshot = new ChunkSnapshot(chunk, world);
+    workers.execute(
+        () -> {
+          try {
+            var data = meshers.get().build(snapshot, layout, lod);
+            Gdx.app.postRunnable(
+                () -> {
+                  if (!disposed) {
+                    ready.addLast(data);
+                  }
+                });
+          } catch (RuntimeException e) {
+            Gdx.app.error("ChunkMeshPipeline", "Building the mesh of a chunk failed", e);
+            Gdx.app.postRunnable(
+                () -> {
+                  if (disposed) {
+                    return;
+                  }
+                  // Otherwise the next request would take the build for underway.
+                  if (requested.get(chunk, -1) == key) {
+                    requested.remove(chunk, -1);
+                  }
+                  failed.addLast(chunk);
+                });
+          }
+        });
+  }
+
+  /** Drops the bookkeeping for a chunk that was removed from the world. */
+  public void forget(Chunk chunk) {
+    requested.remove(chunk, -1);
+  }
+
+  /** Lets every chunk be requested again, e.g. after the atlas layout changed. */
+  public void forgetAll() {
+    requested.clear();
+  }
+
+  /**
+   * Passes finished results to the uploader until it accepted {@code uploadBudget} of them. Results
+   * the uploader rejects, e.g. because they are stale, do not count against the budget.
+   */
+  public void upload(Uploader uploader) {
+    int uploaded = 0;
+    while (ready.size > 0 && uploaded < uploadBudget) {
+      if (uploader.upload(ready.removeFirst())) {
+        uploaded++;
+      }
+    }
+  }
+
+  /** Passes the chunks whose build failed since the last call to {@code retry}. */
+  public void retryFailed(Consumer<Chunk> retry) {
+    while (failed.size > 0) {
+      retry.accept(failed.removeFirst());
+    }
+  }
+
+  public int getPendingUploads() {
+    return ready.size;
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    workers.shutdownNow();
+    ready.clear();
+    failed.clear();
+    requested.clear();
+  }
+
+  public interface Uploader {
+    /**
+     * @return whether the data was turned into a GPU mesh
+     */
+    boolean upload(ChunkMeshData data);
+  }
+}
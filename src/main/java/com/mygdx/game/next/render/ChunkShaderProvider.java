@@ -0,0 +1,69 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultShaderProvider;
+import com.mygdx.game.next.world.ChunkMesher;
+
+/**
+ * Creates the default libGDX shaders, except for chunk meshes: their texture coordinates are in
+ * units of a texture and wrapped into its atlas region, given by {@link
+ * ChunkMesher#REGION_ATTRIBUTE}. That way a merged face repeats its texture on the atlas page, and
+ * a chunk needs no more than one draw call per page.
+ *
+ * <p>The chunk shaders are the default ones with a few lines patched in. The regions are packed
+ * with padding and sampled without mipmaps, so wrapping does not bleed or show seams.
+ */
+public class ChunkShaderProvider extends DefaultShaderProvider {
+  private static final String MAIN = "void main() {";
+  private static final String DIFFUSE = "texture2D(u_diffuseTexture, v_diffuseUV)";
+
+  private final String vertexShader;
+  private final String fragmentShader;
+
+  public ChunkShaderProvider() {
+    String region = ChunkMesher.REGION_ATTRIBUTE;
+    String declarations = "attribute vec4 " + region + ";\nvarying vec4 v_region;\n\n";
+    vertexShader =
+        patch(
+            DefaultShader.getDefaultVertexShader(),
+            MAIN,
+            declarations + MAIN + "\n\tv_region = " + region + ";");
+    fragmentShader =
+        patch(
+            patch(
+                DefaultShader.getDefaultFragmentShader(),
+                MAIN,
+                "varying MED vec4 v_region;\n\n" + MAIN),
+            DIFFUSE,
+            "texture2D(u_diffuseTexture, v_region.xy + fract(v_diffuseUV) * v_region.zw)");
+  }
+
+  @Override
+  protected Shader createShader(Renderable renderable) {
+    if (!hasRegions(renderable)) {
+      return super.createShader(renderable);
+    }
+    String prefix = DefaultShader.createPrefix(renderable, config);
+    return new DefaultShader(renderable, config, prefix, vertexShader, fragmentShader);
+  }
+
+  private static boolean hasRegions(Renderable renderable) {
+    for (VertexAttribute attribute : renderable.meshPart.mesh.getVertexAttributes()) {
+      if (attribute.alias.equals(ChunkMesher.REGION_ATTRIBUTE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Replaces every {@code target}, which must be there, so a changed libGDX shader is noticed. */
+  private static String patch(String shader, String target, String replacement) {
+    if (!shader.contains(target)) {
+      throw new IllegalStateException("The default shader has no " + target);
+    }
+    return shader.replace(target, replacement);
+  }
+}
@@ -0,0 +1,69 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Items with world space bounds in a plain array, so that finding the ones in view every frame is
+ * a tight loop without allocations. The order is not kept: removing swaps the last item into the
+ * gap. Needs no GL context.
+ */
+public class FrustumCuller<T extends FrustumCuller.Item> {
+  private final Array<T> items = new Array<>(false, 64);
+
+  /** @param item with valid bounds, not yet added */
+  public void add(T item) {
+    item.index = items.size;
+    items.add(item);
+  }
+
+  /** Does nothing if the item was not added. */
+  public void remove(T item) {
+    int index = item.index;
+    if (index < 0) {
+      return;
+    }
+    T last = items.pop();
+    if (last != item) {
+      items.set(index, last);
+      last.index = index;
+    }
+    item.index = -1;
+  }
+
+  public void clear() {
+    for (T item : items) {
+      item.index = -1;
+    }
+    items.clear();
+  }
+
+  public int size() {
+    return items.size;
+  }
+
+  /**
+   * Replaces the content of {@code visible} with the items whose bounds intersect the frustum.
+   *
+   * @return the number of visible items
+   */
+  public int cull(Frustum frustum, Array<T> visible) {
+    visible.clear();
+    for (int i = 0, n = items.size; i < n; i++) {
+      T item = items.get(i);
+      if (frustum.boundsInFrustum(item.getBounds())) {
+        visible.add(item);
+      }
+    }
+    return visible.size;
+  }
+
+  /** Something the culler can hold, at most one culler at a time. */
+  public abstract static class Item {
+    /** Position in the array of the culler, or {@code -1}. */
+    int index = -1;
+
+    public abstract BoundingBox getBounds();
+  }
+}
@@ -0,0 +1,287 @@
+package com.mygdx.game.next.render;
+
+import java.util.List;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.shapes.PackedShape;
+import com.mygdx.game.next.world.AtlasLayout;
+import com.mygdx.game.next.world.Chunk;
+import com.mygdx.game.next.world.ShapeInstances;
+
+import lombok.Getter;
+
+/**
+ * Draws a {@link World} with one instanced mesh per distinct block shape and atlas page instead
+ * of a mesh per chunk, see {@link ShapeInstances}. An alternative to the {@link WorldRenderer} for
+ * sparse scenes that repeat a few shapes.
+ *
+ * <p>Only the chunks reported by {@link World#getChunkChanges()} are regrouped, but the offsets of
+ * every shape they have blocks of are uploaded again, for all chunks. Loading or editing a chunk
+ * therefore costs in proportion to the loaded blocks of its shapes, not to the whole world.
+ *
+ * <p>Needs GL 3.2, i.e. an application configured with {@code setOpenGLEmulation}, as done for
+ * the {@code --instanced} option of the {@code DesktopLauncher}. The shaders are GLSL 1.50, so
+ * they also compile on core profiles. Must be used on the GL thread.
+ */
+public class InstancedWorldRenderer implements Disposable {
+  private static final String VERTEX_SHADER =
+      """
+      #version 150
+      in vec3 a_position;
+      in vec3 a_normal;
+      in vec2 a_texCoord0;
+      in vec3 a_offset;
+      uniform mat4 u_projViewTrans;
+      uniform vec3 u_lightDirection;
+      out vec2 v_texCoord0;
+      out float v_light;
+
+      void main() {
+        v_texCoord0 = a_texCoord0;
+        v_light = 0.6 + 0.4 * max(dot(a_normal, -u_lightDirection), 0.0);
+        gl_Position = u_projViewTrans * vec4(a_position + a_offset, 1.0);
+      }
+      """;
+  private static final String FRAGMENT_SHADER =
+      """
+      #version 150
+      uniform sampler2D u_texture;
+      in vec2 v_texCoord0;
+      in float v_light;
+      out vec4 fragColor;
+
+      void main() {
+        fragColor = vec4(texture(u_texture, v_texCoord0).rgb * v_light, 1.0);
+      }
+      """;
+  /** The layout of {@link ShapeInstances.Group#shape()}. */
+  private static final VertexAttributes ATTRIBUTES =
+      new VertexAttributes(
+          VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.TexCoords(0));
+  private static final Vector3 LIGHT_DIRECTION = new Vector3(-0.3f, -1f, -0.5f).nor();
+
+  private final World world;
+  private final ShaderProgram shader;
+  private final BlockTextureAtlas atlas = new BlockTextureAtlas();
+  /** The meshes of every shape in view, see {@link ShapeInstances.Group#properties()}. */
+  private final ObjectMap<BlockProperties, ShapeBatch> batches = new ObjectMap<>();
+  /** The shapes each chunk has blocks of, by chunk key. */
+  private final LongMap<ObjectSet<BlockProperties>> chunkShapes = new LongMap<>();
+  /** Chunks that were added, changed or removed since the last {@link #update()}. */
+  private final ObjectSet<Chunk> dirty = new ObjectSet<>();
+  /** Batches whose offsets changed in the current {@link #update()}. */
+  private final ObjectSet<ShapeBatch> changed = new ObjectSet<>();
+  private final FloatArray instanceData = new FloatArray();
+  /** Blocks drawn by the meshes. */
+  @Getter private int instanceCount;
+  /** Distinct shapes times the atlas pages they use, which is also the number of draw calls. */
+  @Getter private int shapeCount;
+
+  public InstancedWorldRenderer(World world) {
+    if (Gdx.gl30 == null) {
+      throw new IllegalStateException("Instanced rendering needs GL 3.0");
+    }
+    this.world = world;
+    this.shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+    if (!shader.isCompiled()) {
+      String log = shader.getLog();
+      shader.dispose();
+      throw new IllegalStateException("Compiling the instancing shader failed: " + log);
+    }
+    for (Chunk chunk : world.getChunks()) {
+      dirty.add(chunk);
+    }
+    world.getChunkChanges().addListener(dirty::add);
+  }
+
+  /**
+   * Regroups the blocks of the chunks that changed and uploads the offsets of the shapes they
+   * have or had blocks of. Call once per frame.
+   */
+  public void update() {
+    if (atlas.addPaletteTextures()) {
+      // Every shape has new texture coordinates.
+      disposeBatches();
+      for (Chunk chunk : world.getChunks()) {
+        dirty.add(chunk);
+      }
+    }
+    if (dirty.isEmpty()) {
+      return;
+    }
+    var layout = atlas.getLayout();
+    for (Chunk chunk : dirty) {
+      regroup(chunk, layout);
+    }
+    dirty.clear();
+    for (ShapeBatch batch : changed) {
+      upload(batch);
+    }
+    changed.clear();
+  }
+
+  /**
+   * Replaces the offsets the chunk at the position of the given one adds to the batches. An
+   * unloaded or removed chunk just takes its offsets out.
+   */
+  private void regroup(Chunk chunk, AtlasLayout layout) {
+    long key = chunk.getKey();
+    ObjectSet<BlockProperties> old = chunkShapes.remove(key);
+    if (old != null) {
+      for (BlockProperties properties : old) {
+        ShapeBatch batch = batches.get(properties);
+        batch.offsetsByChunk.remove(key);
+        changed.add(batch);
+      }
+    }
+    Chunk loaded = world.getChunk(chunk.getCx(), chunk.getCy(), chunk.getCz());
+    if (loaded == null) {
+      return;
+    }
+    var shapes = new ObjectSet<BlockProperties>();
+    var instances = ShapeInstances.build(List.of(loaded), world, layout);
+    for (ShapeInstances.Group group : instances.getGroups()) {
+      ShapeBatch batch = batches.get(group.properties());
+      if (batch == null) {
+        batch = new ShapeBatch(group.properties());
+        batches.put(group.properties(), batch);
+      }
+      if (!batch.pages.contains(group.page())) {
+        batch.addPage(group.page(), group.shape());
+        shapeCount++;
+      }
+      batch.offsetsByChunk.put(key, group.offsets());
+      shapes.add(group.properties());
+      changed.add(batch);
+    }
+    if (shapes.notEmpty()) {
+      chunkShapes.put(key, shapes);
+    }
+  }
+
+  /** Collects the offsets of the batch from all its chunks, or drops it if there are none. */
+  private void upload(ShapeBatch batch) {
+    instanceCount -= batch.instanceCount;
+    if (batch.offsetsByChunk.isEmpty()) {
+      batches.remove(batch.properties);
+      shapeCount -= batch.meshes.size;
+      batch.dispose();
+      return;
+    }
+    instanceData.clear();
+    for (float[] offsets : batch.offsetsByChunk.values()) {
+      instanceData.addAll(offsets);
+    }
+    batch.setInstances(instanceData);
+    instanceCount += batch.instanceCount;
+  }
+
+  public void render(Camera camera) {
+    Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
+    Gdx.gl.glEnable(GL20.GL_CULL_FACE);
+    Gdx.gl.glCullFace(GL20.GL_BACK);
+    shader.bind();
+    shader.setUniformMatrix("u_projViewTrans", camera.combined);
+    shader.setUniformf("u_lightDirection", LIGHT_DIRECTION);
+    shader.setUniformi("u_texture", 0);
+    for (ShapeBatch batch : batches.values()) {
+      for (int i = 0; i < batch.meshes.size; i++) {
+        atlas.getTexture(batch.pages.get(i)).bind(0);
+        batch.meshes.get(i).render(shader, GL20.GL_TRIANGLES);
+      }
+    }
+    Gdx.gl.glDisable(GL20.GL_CULL_FACE);
+    Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
+  }
+
+  private void disposeBatches() {
+    for (ShapeBatch batch : batches.values()) {
+      batch.dispose();
+    }
+    batches.clear();
+    chunkShapes.clear();
+    changed.clear();
+    instanceCount = 0;
+    shapeCount = 0;
+  }
+
+  @Override
+  public void dispose() {
+    disposeBatches();
+    shader.dispose();
+    atlas.dispose();
+  }
+
+  /** The instanced meshes of one shape, one per atlas page, and the offsets of its blocks. */
+  private static class ShapeBatch implements Disposable {
+    private final BlockProperties properties;
+    private final Array<Mesh> meshes = new Array<>();
+    /** The atlas page of each mesh. */
+    private final IntArray pages = new IntArray();
+    private final LongMap<float[]> offsetsByChunk = new LongMap<>();
+    private int instanceCount;
+    /** Instances the meshes have room for. */
+    private int capacity;
+
+    ShapeBatch(BlockProperties properties) {
+      this.properties = properties;
+    }
+
+    void addPage(int page, PackedShape shape) {
+      var mesh = new Mesh(true, shape.vertexCount(), shape.indices().length, ATTRIBUTES);
+      mesh.setVertices(shape.vertices());
+      mesh.setIndices(shape.indices());
+      if (capacity > 0) {
+        enableInstancing(mesh);
+      }
+      meshes.add(mesh);
+      pages.add(page);
+    }
+
+    void setInstances(FloatArray offsets) {
+      instanceCount = offsets.size / ShapeInstances.INSTANCE_STRIDE;
+      if (instanceCount > capacity) {
+        // Grow in steps so that a shape that is edited a lot is not reallocated every time.
+        capacity = Math.max(instanceCount, capacity * 2);
+        for (Mesh mesh : meshes) {
+          mesh.disableInstancedRendering();
+          enableInstancing(mesh);
+        }
+      }
+      for (Mesh mesh : meshes) {
+        mesh.setInstanceData(offsets.items, 0, offsets.size);
+      }
+    }
+
+    private void enableInstancing(Mesh mesh) {
+      mesh.enableInstancedRendering(
+          false,
+          capacity,
+          new VertexAttribute(
+              VertexAttributes.Usage.Generic, ShapeInstances.INSTANCE_STRIDE, "a_offset"));
+    }
+
+    @Override
+    public void dispose() {
+      for (Mesh mesh : meshes) {
+        mesh.dispose();
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Loads every texture only once, keyed by its internal asset path, and shares it together with a
+ * diffuse {@link Material}. Every {@code acquire} must be paired with a {@link #release}; the
+ * texture is disposed when the last user releases it.
+ */
+public class TextureRegistry implements Disposable {
+  private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+
+  public Texture acquire(String path) {
+    return acquireEntry(path).texture;
+  }
+
+  public Material acquireMaterial(String path) {
+    Entry entry = acquireEntry(path);
+    if (entry.material == null) {
+      entry.material = new Material(TextureAttribute.createDiffuse(entry.texture));
+    }
+    return entry.material;
+  }
+
+  private Entry acquireEntry(String path) {
+    Entry entry = entries.get(path);
+    if (entry == null) {
+      entry = new Entry(new Texture(Gdx.files.internal(path)));
+      entries.put(path, entry);
+    }
+    entry.references++;
+    return entry;
+  }
+
+  public void release(String path) {
+    Entry entry = entries.get(path);
+    if (entry == null) {
+      throw new IllegalStateException("Texture " + path + " is not acquired");
+    }
+    if (--entry.references == 0) {
+      entries.remove(path);
+      entry.texture.dispose();
+    }
+  }
+
+  public int size() {
+    return entries.size;
+  }
+
+  /** Disposes all textures that are still held, regardless of their reference count. */
+  @Override
+  public void dispose() {
+    for (Entry entry : entries.values()) {
+      entry.texture.dispose();
+    }
+    entries.clear();
+  }
+
+  private static class Entry {
+    private final Texture texture;
+    private Material material;
+    private int references;
+
+    Entry(Texture texture) {
+      this.texture = texture;
+    }
+  }
+}
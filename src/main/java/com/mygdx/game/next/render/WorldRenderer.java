@@ -0,0 +1,228 @@
+package com.mygdx.game.next.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.Pool;
+import com.mygdx.game.World;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.Chunk;
+import com.mygdx.game.next.world.ChunkLod;
+import com.mygdx.game.next.world.ChunkMeshData;
+
+import lombok.Getter;
+
+/**
+ * The GPU side of a {@link World}: a mesh per loaded chunk, rebuilt in the background whenever the
+ * version of the chunk changes. The world itself does not know about rendering, so it can be used
+ * without a GL context.
+ *
+ * <p>Only chunks reported by {@link World#getChunkChanges()} are looked at, so the work per frame
+ * depends on what was edited and not on the size of the world.
+ *
+ * <p>Only chunks whose bounds intersect the frustum of the camera are rendered.
+ *
+ * <p>Block textures are packed into a {@link BlockTextureAtlas}. When new textures show up in the
+ * {@link BlockPalette}, they are added to the atlas and all chunks are remeshed for the new layout.
+ *
+ * <p>Chunks far from the camera get a coarser mesh, see {@link ChunkLod}. Levels are only checked
+ * again once the camera moved half the hysteresis, so standing still costs nothing.
+ */
+public class WorldRenderer implements RenderableProvider, Disposable {
+  private static final int MESH_UPLOADS_PER_FRAME = 8;
+  private static final int MESH_REQUESTS_PER_FRAME = 64;
+
+  private final World world;
+  private final Camera camera;
+  private final ChunkLod chunkLod;
+  private final LongMap<ChunkMesh> meshes = new LongMap<>();
+  /**
+   * The meshes with geometry, kept in sync with {@link #meshes} by {@link #putMesh} and {@link
+   * #removeMesh}.
+   */
+  private final FrustumCuller<ChunkMesh> rendered = new FrustumCuller<>();
+  /** The meshes in view, refilled by every {@link #getRenderables} call. */
+  private final Array<ChunkMesh> visible = new Array<>(false, 64, ChunkMesh.class);
+  /** Chunks that were added, changed or removed since they were last looked at. */
+  private final ObjectSet<Chunk> dirty = new ObjectSet<>();
+  private final BlockTextureAtlas atlas = new BlockTextureAtlas();
+  private final ChunkMeshPipeline meshPipeline =
+      new ChunkMeshPipeline(
+          Math.max(1, Runtime.getRuntime().availableProcessors() - 1), MESH_UPLOADS_PER_FRAME);
+
+  /** Chunk meshes rendered by the last {@link #getRenderables} call. */
+  @Getter private int visibleChunks;
+  /** Chunk meshes outside of the frustum in the last {@link #getRenderables} call. */
+  @Getter private int culledChunks;
+  /** Where the camera was when the levels of detail were last checked. */
+  private final Vector3 lodCheckPosition = new Vector3();
+
+  public WorldRenderer(World world, Camera camera) {
+    this(world, camera, ChunkLod.DEFAULT);
+  }
+
+  public WorldRenderer(World world, Camera camera, ChunkLod chunkLod) {
+    this.world = world;
+    this.camera = camera;
+    this.chunkLod = chunkLod;
+    lodCheckPosition.set(camera.position);
+    packNewTextures();
+    for (Chunk chunk : world.getChunks()) {
+      dirty.add(chunk);
+    }
+    world.getChunkChanges().addListener(dirty::add);
+  }
+
+  /**
+   * Adds the textures of blocks that were interned since the last call to the atlas. If that
+   * changed the layout, every chunk is remeshed.
+   */
+  private void packNewTextures() {
+    if (atlas.addPaletteTextures()) {
+      meshPipeline.forgetAll();
+      for (Chunk chunk : world.getChunks()) {
+        dirty.add(chunk);
+      }
+    }
+  }
+
+  /**
+   * Drops the meshes of dirty chunks that are gone, schedules background rebuilds for dirty chunks
+   * whose mesh is outdated and uploads a limited number of finished ones. Until then the previous
+   * mesh of a chunk keeps being rendered, also if its build failed; such chunks are marked dirty
+   * again. Call once per frame on the GL thread.
+   */
+  public void update() {
+    packNewTextures();
+    checkLods();
+    var layout = atlas.getLayout();
+    int requests = 0;
+    ObjectSet.ObjectSetIterator<Chunk> it = dirty.iterator();
+    while (it.hasNext() && requests < MESH_REQUESTS_PER_FRAME) {
+      Chunk chunk = it.next();
+      it.remove();
+      ChunkMesh mesh = meshes.get(chunk.getKey());
+      if (!isLoaded(chunk)) {
+        meshPipeline.forget(chunk);
+        if (mesh != null && mesh.getChunk() == chunk) {
+          removeMesh(mesh);
+          mesh.dispose();
+        }
+        continue;
+      }
+      boolean hasMesh = mesh != null && mesh.getChunk() == chunk;
+      int lod = chooseLod(chunk, hasMesh ? mesh.getLod() : ChunkLod.FULL);
+      if (!hasMesh
+          || mesh.getVersion() != chunk.getVersion()
+          || mesh.getLayout() != layout
+          || mesh.getLod() != lod) {
+        meshPipeline.request(chunk, world, layout, lod);
+        requests++;
+      }
+    }
+    meshPipeline.upload(this::upload);
+    meshPipeline.retryFailed(dirty::add);
+  }
+
+  /** Marks the chunks whose mesh has the wrong level of detail once the camera moved enough. */
+  private void checkLods() {
+    float checkDistance = chunkLod.getHysteresis() / 2;
+    if (camera.position.dst2(lodCheckPosition) < checkDistance * checkDistance) {
+      return;
+    }
+    lodCheckPosition.set(camera.position);
+    for (ChunkMesh mesh : meshes.values()) {
+      if (chooseLod(mesh.getChunk(), mesh.getLod()) != mesh.getLod()) {
+        dirty.add(mesh.getChunk());
+      }
+    }
+  }
+
+  /** @param current the level the chunk has now */
+  private int chooseLod(Chunk chunk, int current) {
+    var position = camera.position;
+    return chunkLod.choose(current, ChunkLod.distance(chunk, position.x, position.y, position.z));
+  }
+
+  private boolean upload(ChunkMeshData data) {
+    Chunk chunk = data.getChunk();
+    if (!isLoaded(chunk)) {
+      meshPipeline.forget(chunk);
+      return false;
+    }
+    if (data.getLayout() != atlas.getLayout()) {
+      return false;
+    }
+    if (chooseLod(chunk, data.getLod()) != data.getLod()) {
+      // The camera moved on while it was built.
+      dirty.add(chunk);
+      return false;
+    }
+    ChunkMesh old = meshes.get(chunk.getKey());
+    if (old != null
+        && old.getChunk() == chunk
+        && old.getLayout() == data.getLayout()
+        && (old.getVersion() > data.getVersion()
+            || old.getVersion() == data.getVersion() && old.getLod() == data.getLod())) {
+      return false;
+    }
+    var mesh = new ChunkMesh(data, atlas);
+    if (old != null) {
+      removeMesh(old);
+      old.dispose();
+    }
+    putMesh(mesh);
+    return true;
+  }
+
+  private void putMesh(ChunkMesh mesh) {
+    meshes.put(mesh.getChunk().getKey(), mesh);
+    if (mesh.getBounds().isValid()) {
+      rendered.add(mesh);
+    }
+  }
+
+  private void removeMesh(ChunkMesh mesh) {
+    meshes.remove(mesh.getChunk().getKey());
+    rendered.remove(mesh);
+  }
+
+  private boolean isLoaded(Chunk chunk) {
+    return world.getChunk(chunk.getCx(), chunk.getCy(), chunk.getCz()) == chunk;
+  }
+
+  public int getMeshCount() {
+    return meshes.size;
+  }
+
+  /** Chunks waiting to be looked at by {@link #update()}. */
+  public int getDirtyChunkCount() {
+    return dirty.size;
+  }
+
+  @Override
+  public void getRenderables(Array<Renderable> renderables, Pool<Renderable> pool) {
+    visibleChunks = rendered.cull(camera.frustum, visible);
+    culledChunks = rendered.size() - visibleChunks;
+    for (int i = 0; i < visible.size; i++) {
+      visible.get(i).getRenderables(renderables, pool);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    meshPipeline.dispose();
+    for (ChunkMesh mesh : meshes.values()) {
+      mesh.dispose();
+    }
+    meshes.clear();
+    rendered.clear();
+    visible.clear();
+    atlas.dispose();
+  }
+}
@@ -0,0 +1,136 @@
+package com.mygdx.game.next.shapes;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+
+import lombok.Getter;
+
+/**
+ * Remembers the generated faces per distinct shape as a {@link PackedShape} and evicts the least
+ * recently used shapes once {@code maxSize} is reached.
+ *
+ * <p>The returned shapes are shared and must not be modified. Looking up a shape that is cached
+ * allocates nothing.
+ */
+public class FaceCache {
+  private static final Set<Side> ALL_SIDES =
+      Collections.unmodifiableSet(EnumSet.allOf(Side.class));
+
+  private final Map<ShapeKey, PackedShape> cache;
+  /** Reused for lookups while holding the lock on {@link #cache}. */
+  private final ShapeKey probe = new ShapeKey();
+  @Getter private long hits;
+  @Getter private long misses;
+
+  public FaceCache(int maxSize) {
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<ShapeKey, PackedShape> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
+
+  public PackedShape get(BlockProperties properties) {
+    return get(properties, properties.getSides());
+  }
+
+  /** The shape with every side present, regardless of the sides of the properties. */
+  public PackedShape getWithAllSides(BlockProperties properties) {
+    return get(properties, ALL_SIDES);
+  }
+
+  private PackedShape get(BlockProperties properties, Set<Side> sides) {
+    int sideMask = ShapeKey.toMask(sides);
+    synchronized (cache) {
+      var shape = cache.get(probe.set(properties, sideMask));
+      if (shape != null) {
+        hits++;
+        return shape;
+      }
+      misses++;
+    }
+    var buffer = new MeshBuffer();
+    FaceGenerator.write(properties.withSides(sides), buffer);
+    var shape = buffer.toPackedShape();
+    synchronized (cache) {
+      cache.put(new ShapeKey().set(properties, sideMask), shape);
+    }
+    return shape;
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Everything of {@link BlockProperties} that has an influence on the generated geometry. Only
+   * the {@link #probe} is ever changed, keys in the map are not.
+   */
+  private static final class ShapeKey {
+    private static final Side[] SIDES = Side.values();
+
+    private Type type;
+    private BlockOrientation orientation;
+    /** Bit {@code 1 << side.ordinal()} for every side that is present. */
+    private int sides;
+    private float h1;
+    private float h2;
+
+    ShapeKey set(BlockProperties properties, int sides) {
+      this.type = properties.getType();
+      this.orientation = properties.getOrientation();
+      this.sides = sides;
+      this.h1 = properties.getH1();
+      this.h2 = properties.getH2();
+      return this;
+    }
+
+    /** Tests every side instead of iterating, which would allocate an iterator. */
+    static int toMask(Set<Side> sides) {
+      int mask = 0;
+      for (Side side : SIDES) {
+        if (sides.contains(side)) {
+          mask |= 1 << side.ordinal();
+        }
+      }
+      return mask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ShapeKey other
+          && type == other.type
+          && orientation == other.orientation
+          && sides == other.sides
+          && Float.compare(h1, other.h1) == 0
+          && Float.compare(h2, other.h2) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = type.hashCode();
+      hash = 31 * hash + orientation.hashCode();
+      hash = 31 * hash + sides;
+      hash = 31 * hash + Float.floatToIntBits(h1);
+      return 31 * hash + Float.floatToIntBits(h2);
+    }
+  }
+}
@@ -1,11 +1,14 @@
 package com.mygdx.game.next.shapes;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.badlogic.gdx.math.Vector3;
 import com.mygdx.game.next.blocks.BlockOrientation;
 import com.mygdx.game.next.blocks.BlockProperties;
 import com.mygdx.game.next.blocks.Face;
+import com.mygdx.game.next.blocks.Type;
 
 import static com.mygdx.game.next.blocks.Block.S;
 
@@ -26,21 +29,66 @@ public class FaceGenerator {
   public static final Vector3 NORMAL_FRONT = new Vector3(0, 0, 1);
   public static final Vector3 NORMAL_TOP = new Vector3(0, 1, 0);
 
+  /** The types {@link #get} has a generator for. */
+  private static final Set<Type> SUPPORTED =
+      EnumSet.of(Type.QUBE, Type.SLOPE_HALF, Type.PILLAR_CENTER, Type.PILLAR_CORNER);
+
+  private static final FaceCache CACHE = new FaceCache(1024);
+
+  /** The packed faces of the shape, shared between all equal shapes. Do not modify them. */
+  public static PackedShape getPacked(BlockProperties properties) {
+    return CACHE.get(properties);
+  }
+
+  /** Like {@link #getPacked} but with all sides present, e.g. for picking. */
+  public static PackedShape getPackedWithAllSides(BlockProperties properties) {
+    return CACHE.getWithAllSides(properties);
+  }
+
+  /** Appends the packed faces of the shape, moved by the given offset, without allocating. */
+  public static void write(
+      BlockProperties properties, float ox, float oy, float oz, MeshBuffer out) {
+    out.add(getPacked(properties), ox, oy, oz);
+  }
+
+  public static FaceCache getCache() {
+    return CACHE;
+  }
+
+  public static boolean isSupported(Type type) {
+    return SUPPORTED.contains(type);
+  }
+
   public static List<Face> get(BlockProperties properties) {
+    var type = properties.getType();
+    if (!isSupported(type)) {
+      throw new UnsupportedOperationException("No generator for " + type);
+    }
     var sides = properties.getSides();
     var blockOrientation = properties.getOrientation();
     var baseHeight = properties.getH1();
     var topHeight = properties.getH2();
-    return switch (properties.getType()) {
+    return switch (type) {
       case QUBE -> new QubeGenerator().get(sides, blockOrientation);
-        // case SLOPE_QUARTER -> getSlope(0, 0.5f, sides, blockOrientation);
       case PILLAR_CENTER -> new PillarCenterGenerator().get(sides, blockOrientation);
       case PILLAR_CORNER -> new PillarCornerGenerator().get(sides, blockOrientation);
       case SLOPE_HALF -> new SlopeGenerator().get(sides, blockOrientation, baseHeight, topHeight);
-      default -> throw new UnsupportedOperationException();
+        // case SLOPE_QUARTER -> getSlope(0, 0.5f, sides, blockOrientation);
+      default -> throw new AssertionError(type);
     };
   }
 
+  /**
+   * Generates the faces of the shape straight into {@code out}, bypassing the cache. This builds
+   * the intermediate {@link Face}s and allocates on every call; only {@link #write(BlockProperties,
+   * float, float, float, MeshBuffer)} of a cached shape is allocation free.
+   */
+  public static void write(BlockProperties properties, MeshBuffer out) {
+    for (Face face : get(properties)) {
+      out.add(face);
+    }
+  }
+
   private static Vector3[] shiftArray(Vector3[] src, int steps) {
     Vector3[] vectors = new Vector3[4];
     System.arraycopy(src, 0, vectors, steps, 4 - steps);
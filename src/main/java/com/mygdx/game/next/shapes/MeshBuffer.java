@@ -0,0 +1,110 @@
+package com.mygdx.game.next.shapes;
+
+import java.util.Arrays;
+
+import com.mygdx.game.next.Vertex;
+import com.mygdx.game.next.blocks.Face;
+
+import lombok.Getter;
+
+/**
+ * A growable buffer of interleaved position/normal/uv floats and short indices that the shape
+ * generators write into. Meant to be reused: {@link #clear()} keeps the arrays.
+ *
+ * <p>Indices are stored as unsigned shorts, so a buffer must be flushed before it holds more than
+ * {@link #MAX_VERTICES} vertices.
+ */
+public class MeshBuffer {
+  public static final int STRIDE = 3 + 3 + 2;
+  public static final int MAX_VERTICES = 1 << 16;
+
+  private float[] vertices;
+  private short[] indices;
+  @Getter private int vertexCount;
+  @Getter private int indexCount;
+
+  public MeshBuffer() {
+    this(256, 384);
+  }
+
+  public MeshBuffer(int vertexCapacity, int indexCapacity) {
+    vertices = new float[vertexCapacity * STRIDE];
+    indices = new short[indexCapacity];
+  }
+
+  /** The backing array; only the first {@code getVertexCount() * STRIDE} floats are valid. */
+  public float[] getVertices() {
+    return vertices;
+  }
+
+  /** The backing array; only the first {@link #getIndexCount()} indices are valid. */
+  public short[] getIndices() {
+    return indices;
+  }
+
+  public boolean isEmpty() {
+    return indexCount == 0;
+  }
+
+  public void add(Face face) {
+    var faceVertices = face.vertices();
+    var faceIndices = face.indices();
+    ensureCapacity(faceVertices.length, faceIndices.length);
+    int base = vertexCount;
+    for (Vertex v : faceVertices) {
+      int o = vertexCount++ * STRIDE;
+      vertices[o] = v.getPosition().x;
+      vertices[o + 1] = v.getPosition().y;
+      vertices[o + 2] = v.getPosition().z;
+      vertices[o + 3] = v.getNormal().x;
+      vertices[o + 4] = v.getNormal().y;
+      vertices[o + 5] = v.getNormal().z;
+      vertices[o + 6] = v.getTextureCoordinates().x;
+      vertices[o + 7] = v.getTextureCoordinates().y;
+    }
+    for (short index : faceIndices) {
+      indices[indexCount++] = (short) (base + index);
+    }
+  }
+
+  /** Appends the shape with its positions moved by the given offset. */
+  public void add(PackedShape shape, float ox, float oy, float oz) {
+    var shapeVertices = shape.vertices();
+    var shapeIndices = shape.indices();
+    int shapeVertexCount = shape.vertexCount();
+    ensureCapacity(shapeVertexCount, shapeIndices.length);
+    int base = vertexCount;
+    int o = vertexCount * STRIDE;
+    System.arraycopy(shapeVertices, 0, vertices, o, shapeVertices.length);
+    for (int i = 0; i < shapeVertexCount; i++, o += STRIDE) {
+      vertices[o] += ox;
+      vertices[o + 1] += oy;
+      vertices[o + 2] += oz;
+    }
+    vertexCount += shapeVertexCount;
+    for (short index : shapeIndices) {
+      indices[indexCount++] = (short) (base + (index & 0xFFFF));
+    }
+  }
+
+  public PackedShape toPackedShape() {
+    return new PackedShape(
+        Arrays.copyOf(vertices, vertexCount * STRIDE), Arrays.copyOf(indices, indexCount));
+  }
+
+  public void clear() {
+    vertexCount = 0;
+    indexCount = 0;
+  }
+
+  private void ensureCapacity(int additionalVertices, int additionalIndices) {
+    int requiredFloats = (vertexCount + additionalVertices) * STRIDE;
+    if (requiredFloats > vertices.length) {
+      vertices = Arrays.copyOf(vertices, Math.max(requiredFloats, vertices.length * 2));
+    }
+    int requiredIndices = indexCount + additionalIndices;
+    if (requiredIndices > indices.length) {
+      indices = Arrays.copyOf(indices, Math.max(requiredIndices, indices.length * 2));
+    }
+  }
+}
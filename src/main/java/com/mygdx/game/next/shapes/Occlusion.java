@@ -0,0 +1,76 @@
+package com.mygdx.game.next.shapes;
+
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Describes which faces of a shape cover the whole side of its cell. All block materials are opaque
+ * for now, so a full face that is present hides whatever lies directly behind it.
+ *
+ * <p>The sides passed in are world sides, the same ones as in {@link BlockProperties#getSides()}.
+ */
+@UtilityClass
+public class Occlusion {
+
+  /** Whether the face towards {@code side} exists and covers that side of the cell completely. */
+  public static boolean isFaceFull(BlockProperties properties, Side side) {
+    if (properties == null || !properties.getSides().contains(side)) {
+      return false;
+    }
+    return switch (properties.getType()) {
+      case QUBE -> true;
+      case SLOPE_HALF -> isSlopeFaceFull(properties, toGeometric(properties, side));
+      case SLOPE_QUARTER, PILLAR_CENTER, PILLAR_CORNER -> false;
+    };
+  }
+
+  /**
+   * Whether the block closes the bottom of its cell. There is no bottom face, so this requires a
+   * full footprint and all other faces to be present; otherwise one could look into the cell and
+   * through its floor.
+   */
+  public static boolean isBottomFull(BlockProperties properties) {
+    if (properties == null || properties.getSides().size() != Side.values().length) {
+      return false;
+    }
+    return switch (properties.getType()) {
+      case QUBE, SLOPE_HALF -> true;
+      case SLOPE_QUARTER, PILLAR_CENTER, PILLAR_CORNER -> false;
+    };
+  }
+
+  /**
+   * Whether the face towards {@code side} lies on the boundary of the cell. Only such faces can be
+   * hidden by a neighbour; inset faces stay visible through the gap.
+   */
+  public static boolean isOnBoundary(BlockProperties properties, Side side) {
+    var geometric = toGeometric(properties, side);
+    return switch (properties.getType()) {
+      case QUBE -> true;
+      case SLOPE_HALF -> geometric != Side.TOP || isFullHeight(properties);
+      case PILLAR_CENTER -> geometric == Side.TOP;
+      case PILLAR_CORNER -> geometric == Side.TOP
+          || geometric == Side.LEFT
+          || geometric == Side.BACK;
+      case SLOPE_QUARTER -> false;
+    };
+  }
+
+  private static boolean isSlopeFaceFull(BlockProperties properties, Side geometric) {
+    return switch (geometric) {
+      case TOP, LEFT, RIGHT -> isFullHeight(properties);
+      case FRONT -> properties.getH1() >= 1;
+      case BACK -> properties.getH2() >= 1;
+    };
+  }
+
+  private static boolean isFullHeight(BlockProperties properties) {
+    return properties.getH1() >= 1 && properties.getH2() >= 1;
+  }
+
+  private static Side toGeometric(BlockProperties properties, Side side) {
+    return side == Side.TOP ? Side.TOP : Rotator.turn(side, properties.getOrientation());
+  }
+}
@@ -0,0 +1,19 @@
+package com.mygdx.game.next.shapes;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+/**
+ * The faces of a shape as interleaved position/normal/uv floats ({@link MeshBuffer#STRIDE} per
+ * vertex) and triangle indices. Shared between blocks, so the arrays must not be modified.
+ */
+@Value
+@Accessors(fluent = true)
+public class PackedShape {
+  float[] vertices;
+  short[] indices;
+
+  public int vertexCount() {
+    return vertices.length / MeshBuffer.STRIDE;
+  }
+}
@@ -25,14 +25,36 @@ public class Rotator {
     }
   }
 
+  /** Rotations around the block center, indexed by {@link BlockOrientation#getRotation()}. */
+  private static final Matrix4[] ROTATIONS = new Matrix4[4];
+
+  /** Quarter turns of a unit square by {@code steps}, for {@link #rotate(Vertex[], int)}. */
+  private static final Matrix4[] UNIT_ROTATIONS = new Matrix4[4];
+
+  static {
+    for (int i = 0; i < ROTATIONS.length; i++) {
+      ROTATIONS[i] =
+          new Matrix4()
+              .translate(S / 2, 0, S / 2)
+              .rotate(0f, 1f, 0, -90f * i)
+              .translate(-S / 2, 0, -S / 2);
+      UNIT_ROTATIONS[i] =
+          new Matrix4()
+              .translate(-0.5f, 0, -0.5f)
+              .rotate(0, 1, 0, 90 * i)
+              .translate(0.5f, 0, 0.5f);
+    }
+  }
+
+  /** Rotates positions and normals. Normals are often shared constants, so they are replaced. */
   public static void rotate(Face face, BlockOrientation blockOrientation) {
-    Matrix4 t =
-        new Matrix4()
-            .translate(S / 2, 0, S / 2)
-            .rotate(0f, 1f, 0, -90f * blockOrientation.getRotation())
-            .translate(-S / 2, 0, -S / 2);
-    for (Vertex v : face.vertices()) {
+    Matrix4 t = ROTATIONS[blockOrientation.getRotation()];
+    Vertex[] vertices = face.vertices();
+    for (int i = 0; i < vertices.length; i++) {
+      Vertex v = vertices[i];
       v.getPosition().mul(t);
+      vertices[i] =
+          new Vertex(v.getPosition(), v.getNormal().cpy().rot(t), v.getTextureCoordinates());
     }
   }
 
@@ -48,7 +70,7 @@ public class Rotator {
     return n;
   }
 
-  private static Side turn(Side side, BlockOrientation blockOrientation) {
+  static Side turn(Side side, BlockOrientation blockOrientation) {
     int n =
         switch (side) {
           case BACK -> 0;
@@ -69,23 +91,14 @@ public class Rotator {
   }
 
   public static void rotate(Vertex[] vertices, int steps) {
-    Matrix4 t =
-        new Matrix4()
-            .translate(-0.5f, 0, -0.5f)
-            .rotate(0, 1, 0, 90 * steps)
-            .translate(0.5f, 0, 0.5f);
-
+    Matrix4 t = UNIT_ROTATIONS[steps & 3];
     for (Vertex vertex : vertices) {
       vertex.getPosition().mul(t);
     }
   }
 
   private static Vector3[] turn(Vector3[] src, int steps) {
-    Matrix4 t =
-        new Matrix4()
-            .translate(-0.5f, 0, -0.5f)
-            .rotate(0, 1, 0, 90 * steps)
-            .translate(0.5f, 0, 0.5f);
+    Matrix4 t = UNIT_ROTATIONS[steps & 3];
     Arrays.stream(src).forEach(v -> v.mul(t));
     return shiftArray(src, steps);
   }
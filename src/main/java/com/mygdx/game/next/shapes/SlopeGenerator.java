@@ -31,12 +31,14 @@ public class SlopeGenerator {
 
   public static Face leftFaceFull(float baseHeight, float topHeight) {
     // TODO: Remove face if base = 0
-    Matrix4 topT3 = new Matrix4().scl(1, topHeight, 1);
-    Matrix4 baseT3 = new Matrix4().scale(1, baseHeight, 1);
     return new Face(
         new Vertex[] {
-          new Vertex(BACK_TOP_LEFT.cpy().mul(topT3), NORMAL_LEFT, new Vector2(0, 1 - topHeight)),
-          new Vertex(FRONT_TOP_LEFT.cpy().mul(baseT3), NORMAL_LEFT, new Vector2(1, 1 - baseHeight)),
+          new Vertex(
+              BACK_TOP_LEFT.cpy().scl(1, topHeight, 1), NORMAL_LEFT, new Vector2(0, 1 - topHeight)),
+          new Vertex(
+              FRONT_TOP_LEFT.cpy().scl(1, baseHeight, 1),
+              NORMAL_LEFT,
+              new Vector2(1, 1 - baseHeight)),
           new Vertex(FRONT_BOTTOM_LEFT.cpy(), NORMAL_LEFT, new Vector2(1, 1)),
           new Vertex(BACK_BOTTOM_LEFT.cpy(), NORMAL_LEFT, new Vector2(0, 1)),
         },
@@ -44,13 +46,16 @@ public class SlopeGenerator {
   }
 
   public static Face rightFaceFull(float baseHeight, float topHeight) {
-    Matrix4 topT3 = new Matrix4().scl(1, topHeight, 1);
-    Matrix4 baseT3 = new Matrix4().scale(1, baseHeight, 1);
     return new Face(
         new Vertex[] {
           new Vertex(
-              FRONT_TOP_RIGHT.cpy().mul(baseT3), NORMAL_RIGHT, new Vector2(0, 1 - baseHeight)),
-          new Vertex(BACK_TOP_RIGHT.cpy().mul(topT3), NORMAL_RIGHT, new Vector2(1, 1 - topHeight)),
+              FRONT_TOP_RIGHT.cpy().scl(1, baseHeight, 1),
+              NORMAL_RIGHT,
+              new Vector2(0, 1 - baseHeight)),
+          new Vertex(
+              BACK_TOP_RIGHT.cpy().scl(1, topHeight, 1),
+              NORMAL_RIGHT,
+              new Vector2(1, 1 - topHeight)),
           new Vertex(BACK_BOTTOM_RIGHT.cpy(), NORMAL_RIGHT, new Vector2(1, 1)),
           new Vertex(FRONT_BOTTOM_RIGHT.cpy(), NORMAL_RIGHT, new Vector2(0, 1)),
         },
@@ -58,9 +63,8 @@ public class SlopeGenerator {
   }
 
   public static Face frontFaceFull(float baseHeight, float topHeight) {
-    Matrix4 topT = new Matrix4().translate(0, baseHeight * S, 0);
-    Vector3 frontTopLeft = FRONT_BOTTOM_LEFT.cpy().mul(T).mul(topT);
-    Vector3 frontTopRight = FRONT_BOTTOM_RIGHT.cpy().mul(T).mul(topT);
+    Vector3 frontTopLeft = FRONT_BOTTOM_LEFT.cpy().mul(T).add(0, baseHeight * S, 0);
+    Vector3 frontTopRight = FRONT_BOTTOM_RIGHT.cpy().mul(T).add(0, baseHeight * S, 0);
     return new Face(
         new Vertex[] {
           new Vertex(frontTopLeft, NORMAL_FRONT.cpy(), new Vector2(0, 1 - baseHeight)),
@@ -72,15 +76,14 @@ public class SlopeGenerator {
   }
 
   public static Face backFaceFull(float baseHeight, float topHeight) {
-    Matrix4 topT3 = new Matrix4().scl(1, topHeight, 1);
     return new Face(
         new Vertex[] {
           new Vertex(
-              BACK_TOP_RIGHT.cpy().mul(T).mul(topT3),
+              BACK_TOP_RIGHT.cpy().mul(T).scl(1, topHeight, 1),
               NORMAL_BACK.cpy(),
               new Vector2(0, 1 - topHeight)),
           new Vertex(
-              BACK_TOP_LEFT.cpy().mul(T).mul(topT3),
+              BACK_TOP_LEFT.cpy().mul(T).scl(1, topHeight, 1),
               NORMAL_BACK.cpy(),
               new Vector2(1, 1 - topHeight)),
           new Vertex(BACK_BOTTOM_LEFT.cpy().mul(T), NORMAL_BACK.cpy(), new Vector2(1, 1)),
@@ -90,12 +93,10 @@ public class SlopeGenerator {
   }
 
   public static Face topFaceFull(float baseHeight, float topHeight) {
-    Matrix4 topT = new Matrix4().translate(0, topHeight * S, 0);
-    Matrix4 bottomT = new Matrix4().translate(0, baseHeight * S, 0);
-    Vector3 backTopLeft = BACK_BOTTOM_LEFT.cpy().mul(T).mul(topT);
-    Vector3 backTopRight = BACK_BOTTOM_RIGHT.cpy().mul(T).mul(topT);
-    Vector3 frontTopRight = FRONT_BOTTOM_RIGHT.cpy().mul(T).mul(bottomT);
-    Vector3 frontTopLeft = FRONT_BOTTOM_LEFT.cpy().mul(T).mul(bottomT);
+    Vector3 backTopLeft = BACK_BOTTOM_LEFT.cpy().mul(T).add(0, topHeight * S, 0);
+    Vector3 backTopRight = BACK_BOTTOM_RIGHT.cpy().mul(T).add(0, topHeight * S, 0);
+    Vector3 frontTopRight = FRONT_BOTTOM_RIGHT.cpy().mul(T).add(0, baseHeight * S, 0);
+    Vector3 frontTopLeft = FRONT_BOTTOM_LEFT.cpy().mul(T).add(0, baseHeight * S, 0);
     Vector3 nVec = backTopLeft.cpy().sub(backTopRight).crs(frontTopRight.cpy().sub(backTopRight));
     return new Face(
         new Vertex[] {
@@ -11,6 +11,10 @@ public class VectorUtil {
     return new Vector3i(Math.min(a.x, b.x), Math.min(a.y, b.y), Math.min(a.z, b.z));
   }
 
+  public static Vector3i getMaximum(Vector3i a, Vector3i b) {
+    return new Vector3i(Math.max(a.x, b.x), Math.max(a.y, b.y), Math.max(a.z, b.z));
+  }
+
   public static Vector3i getAreaVector(Vector3i a, Vector3i b) {
     var difference = b.cpy().sub(a);
     difference.x = Math.abs(difference.x);
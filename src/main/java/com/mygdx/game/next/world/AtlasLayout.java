@@ -0,0 +1,41 @@
+package com.mygdx.game.next.world;
+
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Where the textures of blocks are in the pages of a texture atlas. Immutable, so meshers on any
+ * thread can share it; a changed atlas comes with a new layout.
+ */
+public class AtlasLayout {
+  /** Every texture covers all of page {@code 0}, for meshing without an atlas. */
+  public static final AtlasLayout UNPACKED =
+      new AtlasLayout(new ObjectMap<>(), new Region(0, 0, 0, 1, 1));
+
+  private final ObjectMap<String, Region> regions;
+  private final Region fallback;
+
+  /** @param fallback used for textures that are not in the atlas */
+  public AtlasLayout(ObjectMap<String, Region> regions, Region fallback) {
+    this.regions = new ObjectMap<>(regions);
+    this.fallback = fallback;
+  }
+
+  public Region get(String texture) {
+    return regions.get(texture, fallback);
+  }
+
+  public boolean contains(String texture) {
+    return regions.containsKey(texture);
+  }
+
+  /** The part of a page a texture occupies, in texture coordinates. */
+  public record Region(int page, float u0, float v0, float u1, float v1) {
+    public float u(float u) {
+      return u0 + u * (u1 - u0);
+    }
+
+    public float v(float v) {
+      return v0 + v * (v1 - v0);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.mygdx.game.next.world;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Gives every distinct {@link BlockProperties} a small id, {@link #AIR} being no block, so that
+ * chunks only have to store ids. Ids are never released.
+ *
+ * <p>Interned properties have an unmodifiable set of sides and map of face textures and are
+ * shared by all cells with the same id. Interning is thread safe, and ids may be resolved on any
+ * thread that received them in a thread safe way.
+ */
+@UtilityClass
+public class BlockPalette {
+  public static final int AIR = 0;
+
+  private static final ObjectIntMap<BlockProperties> ids = new ObjectIntMap<>();
+  private static volatile BlockProperties[] properties = new BlockProperties[64];
+  private static int size = 1;
+
+  public static synchronized int intern(BlockProperties block) {
+    if (block == null) {
+      return AIR;
+    }
+    int id = ids.get(block, AIR);
+    if (id != AIR) {
+      return id;
+    }
+    var sides = EnumSet.noneOf(Side.class);
+    sides.addAll(block.getSides());
+    var canonical = block.withSides(Collections.unmodifiableSet(sides));
+    if (block.getFaceTextures().isEmpty()) {
+      canonical = canonical.withFaceTextures(Map.of());
+    } else {
+      var faceTextures = new EnumMap<Side, String>(Side.class);
+      faceTextures.putAll(block.getFaceTextures());
+      canonical = canonical.withFaceTextures(Collections.unmodifiableMap(faceTextures));
+    }
+
+    BlockProperties[] array = properties;
+    if (size == array.length) {
+      array = Arrays.copyOf(array, size * 2);
+    }
+    id = size++;
+    array[id] = canonical;
+    ids.put(canonical, id);
+    // The volatile write publishes the new entry to readers.
+    properties = array;
+    return id;
+  }
+
+  /** @return the interned properties or {@code null} for {@link #AIR} */
+  public static BlockProperties get(int id) {
+    return properties[id];
+  }
+
+  /** The interned instance that is equal to the given properties. */
+  public static BlockProperties canonical(BlockProperties block) {
+    return get(intern(block));
+  }
+
+  public static synchronized int size() {
+    return size;
+  }
+}
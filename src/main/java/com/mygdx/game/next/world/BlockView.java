@@ -0,0 +1,12 @@
+package com.mygdx.game.next.world;
+
+import com.mygdx.game.next.blocks.BlockProperties;
+
+/** Read-only access to the blocks around a cell, e.g. for face culling. */
+public interface BlockView {
+  /**
+   * @return the properties of the block at the given cell or {@code null} if the cell is empty or
+   *     outside the world
+   */
+  BlockProperties getProperties(int x, int y, int z);
+}
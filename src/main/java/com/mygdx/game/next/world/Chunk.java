@@ -0,0 +1,397 @@
+package com.mygdx.game.next.world;
+
+import java.util.Arrays;
+
+import com.mygdx.game.next.blocks.BlockProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A cubic section of the world. Only exists while it holds at least one block.
+ *
+ * <p>Cells hold ids of the {@link BlockPalette} indirectly: a local palette maps the few ids a
+ * chunk uses to small indices, which are packed into longs with 4, 8 or 16 bits each. The width
+ * doubles when the local palette is full even after dropping unused indices.
+ *
+ * <p>{@link #copy()} shares the arrays with the copy until one of both is modified.
+ */
+public class Chunk {
+  public static final int SHIFT = 4;
+  public static final int SIZE = 1 << SHIFT;
+  public static final int MASK = SIZE - 1;
+  public static final int VOLUME = SIZE * SIZE * SIZE;
+
+  /** log2 of the bits per cell: 4, 8 and 16 bits. */
+  private static final int MIN_BITS_SHIFT = 2;
+  private static final int MAX_BITS_SHIFT = 4;
+
+  @Getter private final int cx;
+  @Getter private final int cy;
+  @Getter private final int cz;
+  /** Palette ids by local index, index {@code 0} is always air. */
+  private int[] palette;
+  private int paletteSize = 1;
+  private int bitsShift;
+  private long[] cells;
+  @Getter private int blockCount;
+  /** Incremented on every change so that derived data like meshes can tell when it is stale. */
+  @Getter private int version;
+  /** Whether the blocks changed since the chunk was last written to storage. */
+  @Getter private boolean dirty;
+  /** When the chunk was last used, for evicting chunks that are backed by storage. */
+  @Getter @Setter private long lastAccess;
+  /** Whether a copy might use the arrays too, so they must be cloned before writing. */
+  private boolean shared;
+
+  public Chunk(int cx, int cy, int cz) {
+    this.cx = cx;
+    this.cy = cy;
+    this.cz = cz;
+    this.bitsShift = MIN_BITS_SHIFT;
+    this.cells = new long[VOLUME >> (6 - MIN_BITS_SHIFT)];
+    this.palette = new int[4];
+  }
+
+  private Chunk(Chunk original) {
+    this.cx = original.cx;
+    this.cy = original.cy;
+    this.cz = original.cz;
+    this.palette = original.palette;
+    this.paletteSize = original.paletteSize;
+    this.bitsShift = original.bitsShift;
+    this.cells = original.cells;
+    this.blockCount = original.blockCount;
+    this.shared = true;
+  }
+
+  /**
+   * A copy of the blocks that costs the same however many blocks there are, as the arrays are only
+   * cloned once either chunk is modified. Must be created on the thread that modifies this chunk.
+   */
+  public Chunk copy() {
+    shared = true;
+    return new Chunk(this);
+  }
+
+  public BlockProperties get(int lx, int ly, int lz) {
+    return get(index(lx, ly, lz));
+  }
+
+  public BlockProperties get(int index) {
+    return BlockPalette.get(getId(index));
+  }
+
+  /** @return the {@link BlockPalette} id of the cell */
+  public int getId(int index) {
+    return palette[getLocal(index)];
+  }
+
+  public void set(int lx, int ly, int lz, BlockProperties properties) {
+    setId(index(lx, ly, lz), BlockPalette.intern(properties));
+  }
+
+  /** Sets a cell to a {@link BlockPalette} id, which skips interning. */
+  public void setId(int index, int id) {
+    int old = getId(index);
+    if (old == id) {
+      return;
+    }
+    unshare();
+    setLocal(index, localIndexOf(id));
+    if (old == BlockPalette.AIR) {
+      blockCount++;
+    } else if (id == BlockPalette.AIR) {
+      blockCount--;
+    }
+    version++;
+    dirty = true;
+  }
+
+  /**
+   * Sets all cells of the box between the local coordinates (inclusive) to a {@link BlockPalette}
+   * id. Counts as a single change however many cells are touched.
+   *
+   * @return whether any cell changed
+   */
+  public boolean fill(int x0, int y0, int z0, int x1, int y1, int z1, int id) {
+    unshare();
+    if (x0 == 0 && y0 == 0 && z0 == 0 && x1 == MASK && y1 == MASK && z1 == MASK) {
+      return fillAll(id);
+    }
+    int local = localIndexOf(id);
+    int changed = 0;
+    for (int y = y0; y <= y1; y++) {
+      for (int z = z0; z <= z1; z++) {
+        for (int x = x0; x <= x1; x++) {
+          int index = index(x, y, z);
+          int old = getLocal(index);
+          if (old != local) {
+            setLocal(index, local);
+            changed++;
+            if (old == 0) {
+              blockCount++;
+            } else if (local == 0) {
+              blockCount--;
+            }
+          }
+        }
+      }
+    }
+    return markChanged(changed);
+  }
+
+  /**
+   * Sets all cells of the box between the local coordinates (inclusive) that hold {@code fromId}
+   * to {@code toId}. Counts as a single change however many cells are touched.
+   *
+   * @return whether any cell changed
+   */
+  public boolean replace(int x0, int y0, int z0, int x1, int y1, int z1, int fromId, int toId) {
+    if (fromId == toId) {
+      return false;
+    }
+    // Nothing to replace must not copy a shared chunk or grow its palette.
+    int from = findLocal(fromId);
+    if (from < 0 || !containsLocal(x0, y0, z0, x1, y1, z1, from)) {
+      return false;
+    }
+    unshare();
+    // Making room in the palette for the new id may renumber the local indices.
+    int to = localIndexOf(toId);
+    from = findLocal(fromId);
+    int changed = 0;
+    for (int y = y0; y <= y1; y++) {
+      for (int z = z0; z <= z1; z++) {
+        for (int x = x0; x <= x1; x++) {
+          int index = index(x, y, z);
+          if (getLocal(index) == from) {
+            setLocal(index, to);
+            changed++;
+          }
+        }
+      }
+    }
+    if (from == 0) {
+      blockCount += changed;
+    } else if (to == 0) {
+      blockCount -= changed;
+    }
+    return markChanged(changed);
+  }
+
+  private boolean containsLocal(int x0, int y0, int z0, int x1, int y1, int z1, int local) {
+    for (int y = y0; y <= y1; y++) {
+      for (int z = z0; z <= z1; z++) {
+        for (int x = x0; x <= x1; x++) {
+          if (getLocal(index(x, y, z)) == local) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sets the cells of the box between the local coordinates (inclusive) to the {@link
+   * BlockPalette} ids of the source, which is asked in y, z, x order. Counts as a single change.
+   *
+   * @return whether any cell changed
+   */
+  public boolean setIds(int x0, int y0, int z0, int x1, int y1, int z1, IdSource ids) {
+    unshare();
+    int changed = 0;
+    for (int y = y0; y <= y1; y++) {
+      for (int z = z0; z <= z1; z++) {
+        for (int x = x0; x <= x1; x++) {
+          int index = index(x, y, z);
+          int id = ids.getId(x, y, z);
+          int old = getId(index);
+          if (old != id) {
+            setLocal(index, localIndexOf(id));
+            changed++;
+            if (old == BlockPalette.AIR) {
+              blockCount++;
+            } else if (id == BlockPalette.AIR) {
+              blockCount--;
+            }
+          }
+        }
+      }
+    }
+    return markChanged(changed);
+  }
+
+  /** Starts over with a fresh palette instead of writing every cell. */
+  private boolean fillAll(int id) {
+    boolean changed = false;
+    for (int i = 0; i < VOLUME && !changed; i++) {
+      changed = getId(i) != id;
+    }
+    if (!changed) {
+      return false;
+    }
+    bitsShift = MIN_BITS_SHIFT;
+    cells = new long[VOLUME >> (6 - MIN_BITS_SHIFT)];
+    if (id == BlockPalette.AIR) {
+      paletteSize = 1;
+      blockCount = 0;
+    } else {
+      palette[1] = id;
+      paletteSize = 2;
+      // Local index 1 in every 4 bit cell.
+      Arrays.fill(cells, 0x1111_1111_1111_1111L);
+      blockCount = VOLUME;
+    }
+    return markChanged(VOLUME);
+  }
+
+  private boolean markChanged(int changedCells) {
+    if (changedCells == 0) {
+      return false;
+    }
+    version++;
+    dirty = true;
+    return true;
+  }
+
+  /** Something that affects the mesh of this chunk changed, e.g. a block of a neighbour. */
+  public void markModified() {
+    version++;
+  }
+
+  public void clearDirty() {
+    dirty = false;
+  }
+
+  public boolean isEmpty() {
+    return blockCount == 0;
+  }
+
+  /** Bits used per cell. */
+  public int getBitsPerCell() {
+    return 1 << bitsShift;
+  }
+
+  public long getKey() {
+    return key(cx, cy, cz);
+  }
+
+  private void unshare() {
+    if (shared) {
+      palette = palette.clone();
+      cells = cells.clone();
+      shared = false;
+    }
+  }
+
+  private int getLocal(int index) {
+    return read(cells, bitsShift, index);
+  }
+
+  private void setLocal(int index, int local) {
+    write(cells, bitsShift, index, local);
+  }
+
+  /** Finds or adds the local index of a palette id, which might repack the cells. */
+  private int localIndexOf(int id) {
+    int local = findLocal(id);
+    if (local >= 0) {
+      return local;
+    }
+    if (paletteSize == 1 << (1 << bitsShift)) {
+      compact();
+      if (paletteSize == 1 << (1 << bitsShift)) {
+        resize(bitsShift + 1);
+      }
+    }
+    if (paletteSize == palette.length) {
+      palette = Arrays.copyOf(palette, palette.length * 2);
+    }
+    palette[paletteSize] = id;
+    return paletteSize++;
+  }
+
+  /** @return the local index of a palette id or {@code -1} */
+  private int findLocal(int id) {
+    for (int i = 0; i < paletteSize; i++) {
+      if (palette[i] == id) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Drops local indices that no cell uses anymore. */
+  private void compact() {
+    var used = new boolean[paletteSize];
+    used[0] = true;
+    for (int i = 0; i < VOLUME; i++) {
+      used[getLocal(i)] = true;
+    }
+    var remap = new int[paletteSize];
+    int size = 0;
+    for (int local = 0; local < paletteSize; local++) {
+      if (used[local]) {
+        remap[local] = size;
+        palette[size++] = palette[local];
+      }
+    }
+    if (size == paletteSize) {
+      return;
+    }
+    for (int i = 0; i < VOLUME; i++) {
+      setLocal(i, remap[getLocal(i)]);
+    }
+    paletteSize = size;
+  }
+
+  private void resize(int newBitsShift) {
+    if (newBitsShift > MAX_BITS_SHIFT) {
+      throw new IllegalStateException("Local palette overflow");
+    }
+    var resized = new long[VOLUME >> (6 - newBitsShift)];
+    for (int i = 0; i < VOLUME; i++) {
+      write(resized, newBitsShift, i, read(cells, bitsShift, i));
+    }
+    cells = resized;
+    bitsShift = newBitsShift;
+  }
+
+  private static int read(long[] cells, int bitsShift, int index) {
+    int perLongShift = 6 - bitsShift;
+    int shift = (index & ((1 << perLongShift) - 1)) << bitsShift;
+    return (int) (cells[index >>> perLongShift] >>> shift) & ((1 << (1 << bitsShift)) - 1);
+  }
+
+  private static void write(long[] cells, int bitsShift, int index, int local) {
+    int perLongShift = 6 - bitsShift;
+    int shift = (index & ((1 << perLongShift) - 1)) << bitsShift;
+    long mask = ((1L << (1 << bitsShift)) - 1) << shift;
+    int i = index >>> perLongShift;
+    cells[i] = (cells[i] & ~mask) | ((long) local << shift);
+  }
+
+  /** Provides the {@link BlockPalette} id of a cell. */
+  public interface IdSource {
+    int getId(int x, int y, int z);
+  }
+
+  public static int index(int lx, int ly, int lz) {
+    return (ly << (SHIFT * 2)) | (lz << SHIFT) | lx;
+  }
+
+  /** Packs signed chunk coordinates (21 bits each) into a single map key. */
+  public static long key(int cx, int cy, int cz) {
+    return ((long) (cx & 0x1FFFFF) << 42) | ((long) (cy & 0x1FFFFF) << 21) | (cz & 0x1FFFFF);
+  }
+
+  public static int toChunk(int blockCoordinate) {
+    return blockCoordinate >> SHIFT;
+  }
+
+  public static int toLocal(int blockCoordinate) {
+    return blockCoordinate & MASK;
+  }
+}
@@ -0,0 +1,85 @@
+package com.mygdx.game.next.world;
+
+import lombok.Getter;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * Levels of detail of chunk meshes and which one to use at a distance. A level is only left once
+ * the distance is {@link #getHysteresis()} past its threshold, so chunks near a threshold do not
+ * keep switching back and forth while the camera moves a little. Immutable.
+ */
+public class ChunkLod {
+  /** Every block with its own shape. */
+  public static final int FULL = 0;
+  /** Every block is a box, so slopes and pillars merge with the faces around them. */
+  public static final int BOXES = 1;
+  /**
+   * Only the top surface of the chunk, sampled in cells of a few columns, see {@link
+   * ChunkMesher#HEIGHTFIELD_STEP}.
+   */
+  public static final int HEIGHTFIELD = 2;
+
+  public static final int LEVELS = 3;
+
+  /**
+   * Distances for the {@code GameBox} camera: 67 degrees of view on a 720 pixel high window with
+   * {@code far = 500}. A block of {@code S} then covers about {@code 5400 / distance} pixels, so
+   * at 40 blocks it is some 14 pixels high, too small to tell a slope from a box. Chunks are 16
+   * blocks wide, so the heightfield only starts for chunks whose center lies beyond the far plane
+   * and of which little more than the near corner is drawn.
+   */
+  public static final ChunkLod DEFAULT = new ChunkLod(40 * S, 50 * S, 2 * S);
+
+  /** Distance from the camera to the chunk center at which {@link #BOXES} starts. */
+  @Getter private final float boxesDistance;
+
+  /** Distance from the camera to the chunk center at which {@link #HEIGHTFIELD} starts. */
+  @Getter private final float heightfieldDistance;
+
+  @Getter private final float hysteresis;
+
+  /** Where each level starts, {@code 0} for {@link #FULL}. */
+  private final float[] thresholds;
+
+  public ChunkLod(float boxesDistance, float heightfieldDistance, float hysteresis) {
+    if (hysteresis < 0
+        || boxesDistance <= hysteresis
+        || heightfieldDistance - boxesDistance <= 2 * hysteresis) {
+      throw new IllegalArgumentException(
+          "Invalid distances "
+              + boxesDistance
+              + " and "
+              + heightfieldDistance
+              + " with hysteresis "
+              + hysteresis);
+    }
+    this.boxesDistance = boxesDistance;
+    this.heightfieldDistance = heightfieldDistance;
+    this.hysteresis = hysteresis;
+    this.thresholds = new float[] {0, boxesDistance, heightfieldDistance};
+  }
+
+  /**
+   * @param current the level the chunk has now
+   * @param distance from the camera to the center of the chunk
+   */
+  public int choose(int current, float distance) {
+    int level = current;
+    while (level < LEVELS - 1 && distance > thresholds[level + 1] + hysteresis) {
+      level++;
+    }
+    while (level > FULL && distance < thresholds[level] - hysteresis) {
+      level--;
+    }
+    return level;
+  }
+  /** The distance from a point to the center of the chunk. */
+  public static float distance(Chunk chunk, float x, float y, float z) {
+    float half = Chunk.SIZE * S / 2f;
+    float dx = chunk.getCx() * Chunk.SIZE * S + half - x;
+    float dy = chunk.getCy() * Chunk.SIZE * S + half - y;
+    float dz = chunk.getCz() * Chunk.SIZE * S + half - z;
+    return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+}
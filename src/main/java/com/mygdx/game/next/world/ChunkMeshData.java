@@ -0,0 +1,32 @@
+package com.mygdx.game.next.world;
+
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+
+import lombok.Getter;
+
+/** The CPU side of a chunk mesh: finished vertex data per atlas page, ready to be uploaded. */
+public class ChunkMeshData {
+  @Getter private final Chunk chunk;
+  @Getter private final int version;
+  /** The texture coordinates of the parts point into this layout. */
+  @Getter private final AtlasLayout layout;
+  /** The {@link ChunkLod} level the mesh was built for. */
+  @Getter private final int lod;
+  @Getter private final Array<Part> parts = new Array<>();
+  /** World space box around all blocks with geometry, invalid if there are none. */
+  @Getter private final BoundingBox bounds = new BoundingBox();
+
+  public ChunkMeshData(Chunk chunk, int version, AtlasLayout layout, int lod) {
+    this.chunk = chunk;
+    this.version = version;
+    this.layout = layout;
+    this.lod = lod;
+  }
+
+  /**
+   * Vertices in the layout of {@link ChunkMesher#ATTRIBUTES} and indices of one mesh using one
+   * atlas page.
+   */
+  public record Part(int page, float[] vertices, short[] indices) {}
+}
@@ -0,0 +1,484 @@
+package com.mygdx.game.next.world;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import com.mygdx.game.next.shapes.PackedShape;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * Merges the faces of all blocks in a chunk into one mesh per atlas page. Positions are relative
+ * to the chunk origin. Faces covered by a neighbour, also one in an adjacent chunk, are left out.
+ *
+ * <p>Every vertex carries the atlas region of the texture of its side next to texture coordinates
+ * in units of that texture, see {@link #REGION_ATTRIBUTE}. So blocks with different textures, even
+ * per face, end up in the same mesh. The side of a face is the one its normal points to the most,
+ * sloped faces count as top. Qube faces live on the page of their own texture. Other shapes live
+ * on the page of their main texture; face textures on other pages are replaced by the main one.
+ *
+ * <p>Coplanar faces of {@link Type#QUBE} blocks with the same texture and orientation are merged
+ * greedily into rectangles, whose texture coordinates go past {@code 1} so the shader repeats the
+ * region once per block. Other shapes are never merged, except at {@link ChunkLod#BOXES} where
+ * every block is meshed as a qube and culled against the boxes around it. {@link
+ * ChunkLod#HEIGHTFIELD} keeps only a coarse top surface.
+ *
+ * <p>Only produces CPU side data and does not touch GL, so it can run on any thread. An instance
+ * keeps its vertex buffers between builds and must only be used by one thread at a time.
+ */
+public class ChunkMesher {
+  /**
+   * The atlas region a vertex samples from as {@code u0, v0, width, height}. The texture
+   * coordinates are wrapped into it by the shader of {@link
+   * com.mygdx.game.next.render.ChunkShaderProvider}.
+   */
+  public static final String REGION_ATTRIBUTE = "a_region";
+
+  public static final VertexAttributes ATTRIBUTES =
+      new VertexAttributes(
+          VertexAttribute.Position(),
+          VertexAttribute.Normal(),
+          VertexAttribute.TexCoords(0),
+          new VertexAttribute(VertexAttributes.Usage.Generic, 4, REGION_ATTRIBUTE));
+  /** Floats per vertex of the parts, in the layout of {@link #ATTRIBUTES}. */
+  public static final int STRIDE = MeshBuffer.STRIDE + 4;
+  /** Columns along each side of a cell at {@link ChunkLod#HEIGHTFIELD}. */
+  public static final int HEIGHTFIELD_STEP = 4;
+
+  private static final int HEIGHTFIELD_CELLS = Chunk.SIZE / HEIGHTFIELD_STEP;
+
+  private static final Side[] SIDES = Side.values();
+
+  private final IntMap<PageBuffer> pageBuffers = new IntMap<>();
+  /** Atlas regions of the sides of the current block, resolved on first use. */
+  private final AtlasLayout.Region[] sideRegions = new AtlasLayout.Region[SIDES.length];
+  /**
+   * The visible faces of qubes waiting to be merged, by side and cell index. Every entry is
+   * cleared again when it is merged.
+   */
+  private final BlockProperties[] qubeFaces = new BlockProperties[SIDES.length * Chunk.VOLUME];
+  /** Height in blocks of every heightfield cell, {@code 0} if it is empty. */
+  private final int[] cellHeights = new int[HEIGHTFIELD_CELLS * HEIGHTFIELD_CELLS];
+  /** The top block of the highest column of every heightfield cell. */
+  private final BlockProperties[] cellTops =
+      new BlockProperties[HEIGHTFIELD_CELLS * HEIGHTFIELD_CELLS];
+
+  public ChunkMeshData build(ChunkSnapshot snapshot, AtlasLayout layout) {
+    return build(snapshot, layout, ChunkLod.FULL);
+  }
+
+  /** @param lod one of the levels of {@link ChunkLod} */
+  public ChunkMeshData build(ChunkSnapshot snapshot, AtlasLayout layout, int lod) {
+    var data = new ChunkMeshData(snapshot.getChunk(), snapshot.getVersion(), layout, lod);
+    if (lod == ChunkLod.HEIGHTFIELD) {
+      buildHeightfield(snapshot, layout, data);
+      return data;
+    }
+    boolean boxes = lod == ChunkLod.BOXES;
+    int bx = snapshot.getBlockX();
+    int by = snapshot.getBlockY();
+    int bz = snapshot.getBlockZ();
+    int minX = Chunk.SIZE;
+    int minY = Chunk.SIZE;
+    int minZ = Chunk.SIZE;
+    int maxX = -1;
+    int maxY = -1;
+    int maxZ = -1;
+
+    Arrays.fill(qubeFaces, null);
+    for (int ly = 0; ly < Chunk.SIZE; ly++) {
+      for (int lz = 0; lz < Chunk.SIZE; lz++) {
+        for (int lx = 0; lx < Chunk.SIZE; lx++) {
+          var properties = snapshot.getLocalProperties(lx, ly, lz);
+          if (properties == null) {
+            continue;
+          }
+          var visibleSides =
+              boxes
+                  ? FaceCuller.getVisibleBoxSides(snapshot, lx, ly, lz, properties)
+                  : FaceCuller.getVisibleSides(snapshot, bx + lx, by + ly, bz + lz, properties);
+          if (visibleSides.isEmpty()) {
+            continue;
+          }
+          if (boxes || properties.getType() == Type.QUBE) {
+            int index = Chunk.index(lx, ly, lz);
+            for (Side side : visibleSides) {
+              qubeFaces[side.ordinal() * Chunk.VOLUME + index] = properties;
+            }
+          } else {
+            var shape =
+                FaceGenerator.getPacked(
+                    visibleSides == properties.getSides()
+                        ? properties
+                        : properties.withSides(visibleSides));
+            addToAtlasPage(shape, lx, ly, lz, properties, layout, data);
+          }
+          minX = Math.min(minX, lx);
+          minY = Math.min(minY, ly);
+          minZ = Math.min(minZ, lz);
+          maxX = Math.max(maxX, lx);
+          maxY = Math.max(maxY, ly);
+          maxZ = Math.max(maxZ, lz);
+        }
+      }
+    }
+    mergeAndFlush(layout, data);
+    if (maxX >= 0) {
+      data.getBounds()
+          .set(
+              new Vector3((bx + minX) * S, (by + minY) * S, (bz + minZ) * S),
+              new Vector3((bx + maxX + 1) * S, (by + maxY + 1) * S, (bz + maxZ + 1) * S));
+    }
+    return data;
+  }
+
+  /** Merges the collected qube faces and moves what is left in the page buffers into parts. */
+  private void mergeAndFlush(AtlasLayout layout, ChunkMeshData data) {
+    for (Side side : SIDES) {
+      mergeQubeFaces(side, layout, data);
+    }
+    for (IntMap.Entry<PageBuffer> entry : pageBuffers.entries()) {
+      flush(entry.key, entry.value, data);
+    }
+  }
+
+  /**
+   * Meshes the chunk as a box per cell of {@link #HEIGHTFIELD_STEP} by {@link #HEIGHTFIELD_STEP}
+   * columns, as high as its highest column and with the textures of the block on top of that. A
+   * wall is only made where a cell is higher than the cell next to it. On the chunk border it goes
+   * down to the lowest adjacent column of the neighbour, so there are no gaps whatever level of
+   * detail the neighbour has. Blocks below overhangs are lost, which is fine from afar.
+   *
+   * <p>The boxes are laid out as qube faces, so cells of the same height and texture merge.
+   */
+  private void buildHeightfield(ChunkSnapshot snapshot, AtlasLayout layout, ChunkMeshData data) {
+    Arrays.fill(qubeFaces, null);
+    Arrays.fill(cellHeights, 0);
+    Arrays.fill(cellTops, null);
+    for (int lz = 0; lz < Chunk.SIZE; lz++) {
+      for (int lx = 0; lx < Chunk.SIZE; lx++) {
+        int height = columnHeight(snapshot, lx, lz);
+        int cell = (lz / HEIGHTFIELD_STEP) * HEIGHTFIELD_CELLS + lx / HEIGHTFIELD_STEP;
+        if (height > cellHeights[cell]) {
+          cellHeights[cell] = height;
+          cellTops[cell] = snapshot.getLocalProperties(lx, height - 1, lz);
+        }
+      }
+    }
+
+    int maxHeight = 0;
+    for (int cz = 0; cz < HEIGHTFIELD_CELLS; cz++) {
+      for (int cx = 0; cx < HEIGHTFIELD_CELLS; cx++) {
+        int height = cellHeights[cz * HEIGHTFIELD_CELLS + cx];
+        if (height == 0) {
+          continue;
+        }
+        maxHeight = Math.max(maxHeight, height);
+        var top = cellTops[cz * HEIGHTFIELD_CELLS + cx];
+        for (Side side : SIDES) {
+          int bottom = side == Side.TOP ? height - 1 : neighbourHeight(snapshot, cx, cz, side);
+          for (int ly = bottom; ly < height; ly++) {
+            addCellFaces(cx, ly, cz, side, top);
+          }
+        }
+      }
+    }
+    mergeAndFlush(layout, data);
+
+    if (maxHeight > 0) {
+      int bx = snapshot.getBlockX();
+      int by = snapshot.getBlockY();
+      int bz = snapshot.getBlockZ();
+      data.getBounds()
+          .set(
+              new Vector3(bx * S, by * S, bz * S),
+              new Vector3((bx + Chunk.SIZE) * S, (by + maxHeight) * S, (bz + Chunk.SIZE) * S));
+    }
+  }
+
+  /** Marks the faces towards {@code side} of the cell's row of blocks at {@code ly} for merging. */
+  private void addCellFaces(int cx, int ly, int cz, Side side, BlockProperties top) {
+    int x0 = cx * HEIGHTFIELD_STEP;
+    int z0 = cz * HEIGHTFIELD_STEP;
+    int offset = side.ordinal() * Chunk.VOLUME;
+    for (int z = 0; z < HEIGHTFIELD_STEP; z++) {
+      for (int x = 0; x < HEIGHTFIELD_STEP; x++) {
+        boolean outer =
+            switch (side) {
+              case TOP -> true;
+              case LEFT -> x == 0;
+              case RIGHT -> x == HEIGHTFIELD_STEP - 1;
+              case BACK -> z == 0;
+              case FRONT -> z == HEIGHTFIELD_STEP - 1;
+            };
+        if (outer) {
+          qubeFaces[offset + Chunk.index(x0 + x, ly, z0 + z)] = top;
+        }
+      }
+    }
+  }
+
+  /**
+   * How high the cell next to a heightfield cell reaches. Beyond the chunk border that is the
+   * lowest of the columns along the border of the cell.
+   */
+  private int neighbourHeight(ChunkSnapshot snapshot, int cx, int cz, Side side) {
+    int nx = cx;
+    int nz = cz;
+    switch (side) {
+      case LEFT -> nx--;
+      case RIGHT -> nx++;
+      case BACK -> nz--;
+      case FRONT -> nz++;
+      default -> throw new IllegalArgumentException("No neighbour towards " + side);
+    }
+    if (nx >= 0 && nx < HEIGHTFIELD_CELLS && nz >= 0 && nz < HEIGHTFIELD_CELLS) {
+      return cellHeights[nz * HEIGHTFIELD_CELLS + nx];
+    }
+    int lowest = Chunk.SIZE;
+    for (int i = 0; i < HEIGHTFIELD_STEP; i++) {
+      int lx = nx < 0 ? -1 : nx == HEIGHTFIELD_CELLS ? Chunk.SIZE : cx * HEIGHTFIELD_STEP + i;
+      int lz = nz < 0 ? -1 : nz == HEIGHTFIELD_CELLS ? Chunk.SIZE : cz * HEIGHTFIELD_STEP + i;
+      lowest = Math.min(lowest, columnHeight(snapshot, lx, lz));
+    }
+    return lowest;
+  }
+
+  /** One above the highest block of the column inside the chunk, {@code 0} if it is empty. */
+  private static int columnHeight(ChunkSnapshot snapshot, int lx, int lz) {
+    for (int ly = Chunk.SIZE - 1; ly >= 0; ly--) {
+      if (snapshot.getLocalProperties(lx, ly, lz) != null) {
+        return ly + 1;
+      }
+    }
+    return 0;
+  }
+
+  private void addToAtlasPage(
+      PackedShape shape,
+      int lx,
+      int ly,
+      int lz,
+      BlockProperties properties,
+      AtlasLayout layout,
+      ChunkMeshData data) {
+    var main = layout.get(properties.getTexture());
+    var buffer = pageBuffer(main.page(), shape.vertexCount(), data);
+    int first = buffer.mesh.getVertexCount();
+    buffer.mesh.add(shape, lx * S, ly * S, lz * S);
+    float[] vertices = buffer.mesh.getVertices();
+    Arrays.fill(sideRegions, null);
+    for (int v = first; v < buffer.mesh.getVertexCount(); v++) {
+      buffer.addRegion(regionOf(vertices, v, properties, layout, main, sideRegions));
+    }
+  }
+
+  /** The buffer of a page with room for {@code vertexCount} more vertices. */
+  private PageBuffer pageBuffer(int page, int vertexCount, ChunkMeshData data) {
+    PageBuffer buffer = pageBuffers.get(page);
+    if (buffer == null) {
+      buffer = new PageBuffer();
+      pageBuffers.put(page, buffer);
+    }
+    if (buffer.mesh.getVertexCount() + vertexCount > MeshBuffer.MAX_VERTICES) {
+      flush(page, buffer, data);
+    }
+    return buffer;
+  }
+
+  /**
+   * Merges the faces towards one side slice by slice. Each rectangle grows along the first axis of
+   * the slice as far as possible, then along the second one while whole rows match.
+   */
+  private void mergeQubeFaces(Side side, AtlasLayout layout, ChunkMeshData data) {
+    // Axes of the slices, the first two span a slice.
+    int axisA;
+    int axisB;
+    int axisN;
+    switch (side) {
+      case TOP -> {
+        axisA = 0;
+        axisB = 2;
+        axisN = 1;
+      }
+      case LEFT, RIGHT -> {
+        axisA = 2;
+        axisB = 1;
+        axisN = 0;
+      }
+      default -> {
+        axisA = 0;
+        axisB = 1;
+        axisN = 2;
+      }
+    }
+    int offset = side.ordinal() * Chunk.VOLUME;
+    var cell = new int[3];
+    for (int n = 0; n < Chunk.SIZE; n++) {
+      cell[axisN] = n;
+      for (int b = 0; b < Chunk.SIZE; b++) {
+        for (int a = 0; a < Chunk.SIZE; a++) {
+          cell[axisA] = a;
+          cell[axisB] = b;
+          var properties = qubeFaces[offset + Chunk.index(cell[0], cell[1], cell[2])];
+          if (properties == null) {
+            continue;
+          }
+          int width = 1;
+          while (a + width < Chunk.SIZE) {
+            cell[axisA] = a + width;
+            if (!canMerge(side, properties, cell)) {
+              break;
+            }
+            width++;
+          }
+          int height = 1;
+          rows:
+          while (b + height < Chunk.SIZE) {
+            cell[axisB] = b + height;
+            for (int i = 0; i < width; i++) {
+              cell[axisA] = a + i;
+              if (!canMerge(side, properties, cell)) {
+                break rows;
+              }
+            }
+            height++;
+          }
+          for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+              cell[axisA] = a + i;
+              cell[axisB] = b + j;
+              qubeFaces[offset + Chunk.index(cell[0], cell[1], cell[2])] = null;
+            }
+          }
+          cell[axisA] = a;
+          cell[axisB] = b;
+          var size = new int[3];
+          size[axisA] = width;
+          size[axisB] = height;
+          size[axisN] = 1;
+          var face = QubeFaces.get(properties.getOrientation(), side);
+          addTiled(face, cell, size, layout.get(properties.getTexture(side)), data);
+          a += width - 1;
+        }
+      }
+    }
+  }
+
+  private boolean canMerge(Side side, BlockProperties properties, int[] cell) {
+    var other = qubeFaces[side.ordinal() * Chunk.VOLUME + Chunk.index(cell[0], cell[1], cell[2])];
+    return other == properties
+        || other != null
+            && other.getOrientation() == properties.getOrientation()
+            && other.getTexture(side).equals(properties.getTexture(side));
+  }
+
+  /**
+   * Stretches a face of a single qube over {@code size} blocks starting at {@code cell}. The
+   * texture coordinates keep their change per block, so the texture repeats once per block.
+   */
+  private void addTiled(
+      QubeFaces.UnitFace face,
+      int[] cell,
+      int[] size,
+      AtlasLayout.Region region,
+      ChunkMeshData data) {
+    var shape = face.shape();
+    var buffer = pageBuffer(region.page(), shape.vertexCount(), data);
+    int first = buffer.mesh.getVertexCount();
+    buffer.mesh.add(shape, cell[0] * S, cell[1] * S, cell[2] * S);
+    float[] vertices = buffer.mesh.getVertices();
+    float[] gradients = face.gradients();
+    for (int v = 0; v < shape.vertexCount(); v++) {
+      int o = (first + v) * MeshBuffer.STRIDE;
+      for (int axis = 0; axis < 3; axis++) {
+        if (QubeFaces.blockCoordinate(shape.vertices(), v, axis) == 1) {
+          int extra = size[axis] - 1;
+          vertices[o + axis] += extra * S;
+          vertices[o + 6] += extra * gradients[axis * 2];
+          vertices[o + 7] += extra * gradients[axis * 2 + 1];
+        }
+      }
+      buffer.addRegion(region);
+    }
+  }
+
+  /**
+   * The region of the side a vertex of a block faces, or {@code main} if that is on another page.
+   *
+   * @param sideRegions regions resolved so far for this block, cleared before its first vertex
+   */
+  private static AtlasLayout.Region regionOf(
+      float[] vertices,
+      int vertex,
+      BlockProperties properties,
+      AtlasLayout layout,
+      AtlasLayout.Region main,
+      AtlasLayout.Region[] sideRegions) {
+    int o = vertex * MeshBuffer.STRIDE;
+    Side side = sideOf(vertices[o + 3], vertices[o + 4], vertices[o + 5]);
+    AtlasLayout.Region region = sideRegions[side.ordinal()];
+    if (region == null) {
+      region = layout.get(properties.getTexture(side));
+      if (region.page() != main.page()) {
+        region = main;
+      }
+      sideRegions[side.ordinal()] = region;
+    }
+    return region;
+  }
+
+  /** The side a face with the given normal counts as for its texture. */
+  static Side sideOf(float nx, float ny, float nz) {
+    float ax = Math.abs(nx);
+    float ay = Math.abs(ny);
+    float az = Math.abs(nz);
+    if (ay >= ax && ay >= az) {
+      return Side.TOP;
+    }
+    if (ax >= az) {
+      return nx < 0 ? Side.LEFT : Side.RIGHT;
+    }
+    return nz < 0 ? Side.BACK : Side.FRONT;
+  }
+
+  /** Interleaves the vertices of the buffer with their regions into a new part. */
+  private static void flush(int page, PageBuffer buffer, ChunkMeshData data) {
+    var mesh = buffer.mesh;
+    if (mesh.isEmpty()) {
+      return;
+    }
+    float[] source = mesh.getVertices();
+    float[] regions = buffer.regions.items;
+    float[] vertices = new float[mesh.getVertexCount() * STRIDE];
+    for (int v = 0; v < mesh.getVertexCount(); v++) {
+      System.arraycopy(source, v * MeshBuffer.STRIDE, vertices, v * STRIDE, MeshBuffer.STRIDE);
+      System.arraycopy(regions, v * 4, vertices, v * STRIDE + MeshBuffer.STRIDE, 4);
+    }
+    data.getParts()
+        .add(
+            new ChunkMeshData.Part(
+                page, vertices, Arrays.copyOf(mesh.getIndices(), mesh.getIndexCount())));
+    mesh.clear();
+    buffer.regions.clear();
+  }
+
+  /** The vertices of one atlas page and, in step with them, the region of every vertex. */
+  private static class PageBuffer {
+    private final MeshBuffer mesh = new MeshBuffer();
+    private final FloatArray regions = new FloatArray();
+
+    void addRegion(AtlasLayout.Region region) {
+      regions.add(region.u0(), region.v0(), region.u1() - region.u0(), region.v1() - region.v0());
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.mygdx.game.next.world;
+
+import com.mygdx.game.next.blocks.BlockProperties;
+
+import lombok.Getter;
+
+/**
+ * An immutable copy of a chunk and the one cell wide border around it, taken on the main thread so
+ * that a mesh can be built from it on a worker thread while the world keeps changing.
+ */
+public class ChunkSnapshot implements BlockView {
+  private static final int PADDED = Chunk.SIZE + 2;
+
+  @Getter private final Chunk chunk;
+  @Getter private final int version;
+  private final int bx;
+  private final int by;
+  private final int bz;
+  private final BlockProperties[] properties = new BlockProperties[PADDED * PADDED * PADDED];
+
+  public ChunkSnapshot(Chunk chunk, BlockView world) {
+    this.chunk = chunk;
+    this.version = chunk.getVersion();
+    this.bx = chunk.getCx() * Chunk.SIZE;
+    this.by = chunk.getCy() * Chunk.SIZE;
+    this.bz = chunk.getCz() * Chunk.SIZE;
+
+    for (int y = -1; y <= Chunk.SIZE; y++) {
+      for (int z = -1; z <= Chunk.SIZE; z++) {
+        for (int x = -1; x <= Chunk.SIZE; x++) {
+          int i = paddedIndex(x, y, z);
+          if (isInside(x) && isInside(y) && isInside(z)) {
+            properties[i] = chunk.get(x, y, z);
+          } else {
+            properties[i] = world.getProperties(bx + x, by + y, bz + z);
+          }
+        }
+      }
+    }
+  }
+
+  /** Properties by world coordinates; {@code null} for cells that were not captured. */
+  @Override
+  public BlockProperties getProperties(int x, int y, int z) {
+    int px = x - bx;
+    int py = y - by;
+    int pz = z - bz;
+    if (px < -1 || px > Chunk.SIZE || py < -1 || py > Chunk.SIZE || pz < -1 || pz > Chunk.SIZE) {
+      return null;
+    }
+    return properties[paddedIndex(px, py, pz)];
+  }
+
+  public BlockProperties getLocalProperties(int lx, int ly, int lz) {
+    return properties[paddedIndex(lx, ly, lz)];
+  }
+
+  public int getBlockX() {
+    return bx;
+  }
+
+  public int getBlockY() {
+    return by;
+  }
+
+  public int getBlockZ() {
+    return bz;
+  }
+
+  private static boolean isInside(int local) {
+    return 0 <= local && local < Chunk.SIZE;
+  }
+
+  private static int paddedIndex(int x, int y, int z) {
+    return ((y + 1) * PADDED + (z + 1)) * PADDED + (x + 1);
+  }
+}
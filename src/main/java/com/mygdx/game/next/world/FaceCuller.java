@@ -0,0 +1,111 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.shapes.Occlusion;
+
+import lombok.experimental.UtilityClass;
+
+/** Removes the faces of a block that are covered by its neighbours. */
+@UtilityClass
+public class FaceCuller {
+  private static final int SIDE_COUNT = Side.values().length;
+
+  /**
+   * @return the sides of the block at the given cell that can be seen. This is the original set of
+   *     the properties if nothing is hidden.
+   */
+  public static Set<Side> getVisibleSides(
+      BlockView view, int x, int y, int z, BlockProperties properties) {
+    Set<Side> sides = properties.getSides();
+    EnumSet<Side> visible = null;
+    for (Side side : sides) {
+      if (Occlusion.isOnBoundary(properties, side) && isCovered(view, x, y, z, side)) {
+        if (visible == null) {
+          visible = EnumSet.copyOf(sides);
+        }
+        visible.remove(side);
+      }
+    }
+    return visible == null ? sides : visible;
+  }
+
+  /**
+   * The visible sides of a block that is meshed as a box at {@link ChunkLod#BOXES}. The neighbours
+   * in the same chunk are boxes as well: one covers a side if it has the opposite side, or all
+   * sides for {@link Side#TOP} since boxes have no bottom. Neighbours in other chunks might have
+   * their full shape, so they are checked like in {@link #getVisibleSides}.
+   */
+  public static Set<Side> getVisibleBoxSides(
+      ChunkSnapshot snapshot, int lx, int ly, int lz, BlockProperties properties) {
+    Set<Side> sides = properties.getSides();
+    EnumSet<Side> visible = null;
+    for (Side side : sides) {
+      if (isCoveredByBox(snapshot, lx, ly, lz, side)) {
+        if (visible == null) {
+          visible = EnumSet.copyOf(sides);
+        }
+        visible.remove(side);
+      }
+    }
+    return visible == null ? sides : visible;
+  }
+
+  private static boolean isCoveredByBox(
+      ChunkSnapshot snapshot, int lx, int ly, int lz, Side side) {
+    int nx = lx;
+    int ny = ly;
+    int nz = lz;
+    Side opposite;
+    switch (side) {
+      case TOP -> {
+        ny++;
+        opposite = null;
+      }
+      case FRONT -> {
+        nz++;
+        opposite = Side.BACK;
+      }
+      case BACK -> {
+        nz--;
+        opposite = Side.FRONT;
+      }
+      case LEFT -> {
+        nx--;
+        opposite = Side.RIGHT;
+      }
+      default -> {
+        nx++;
+        opposite = Side.LEFT;
+      }
+    }
+    if (((nx | ny | nz) & ~Chunk.MASK) != 0) {
+      return isCovered(
+          snapshot,
+          snapshot.getBlockX() + lx,
+          snapshot.getBlockY() + ly,
+          snapshot.getBlockZ() + lz,
+          side);
+    }
+    var neighbour = snapshot.getLocalProperties(nx, ny, nz);
+    if (neighbour == null) {
+      return false;
+    }
+    return opposite == null
+        ? neighbour.getSides().size() == SIDE_COUNT
+        : neighbour.getSides().contains(opposite);
+  }
+
+  private static boolean isCovered(BlockView view, int x, int y, int z, Side side) {
+    return switch (side) {
+      case TOP -> Occlusion.isBottomFull(view.getProperties(x, y + 1, z));
+      case FRONT -> Occlusion.isFaceFull(view.getProperties(x, y, z + 1), Side.BACK);
+      case BACK -> Occlusion.isFaceFull(view.getProperties(x, y, z - 1), Side.FRONT);
+      case LEFT -> Occlusion.isFaceFull(view.getProperties(x - 1, y, z), Side.RIGHT);
+      case RIGHT -> Occlusion.isFaceFull(view.getProperties(x + 1, y, z), Side.LEFT);
+    };
+  }
+}
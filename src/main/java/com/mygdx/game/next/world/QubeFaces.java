@@ -0,0 +1,78 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import com.mygdx.game.next.shapes.PackedShape;
+
+import lombok.experimental.UtilityClass;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * The single faces of a {@link Type#QUBE} by orientation and world side, together with how their
+ * texture coordinates change per block along each axis. This is what lets the {@link ChunkMesher}
+ * stretch one face over a rectangle of blocks and still repeat the texture once per block.
+ */
+@UtilityClass
+class QubeFaces {
+  private static final UnitFace[][] FACES =
+      new UnitFace[BlockOrientation.values().length][Side.values().length];
+
+  static {
+    for (BlockOrientation orientation : BlockOrientation.values()) {
+      for (Side side : Side.values()) {
+        var properties = new BlockProperties(Type.QUBE, orientation, EnumSet.of(side), 0, 0);
+        var shape = FaceGenerator.getPacked(properties);
+        FACES[orientation.ordinal()][side.ordinal()] = new UnitFace(shape, gradients(shape));
+      }
+    }
+  }
+
+  static UnitFace get(BlockOrientation orientation, Side side) {
+    return FACES[orientation.ordinal()][side.ordinal()];
+  }
+
+  /** Position of a vertex along an axis in blocks, which is {@code 0} or {@code 1}. */
+  static int blockCoordinate(float[] vertices, int vertex, int axis) {
+    return Math.round(vertices[vertex * MeshBuffer.STRIDE + axis] / S);
+  }
+
+  /** Finds two vertices that only differ along an axis to see how u and v change along it. */
+  private static float[] gradients(PackedShape shape) {
+    float[] vertices = shape.vertices();
+    float[] gradients = new float[3 * 2];
+    for (int axis = 0; axis < 3; axis++) {
+      for (int i = 1; i < shape.vertexCount(); i++) {
+        if (differsOnlyAlong(vertices, 0, i, axis)) {
+          int step = blockCoordinate(vertices, i, axis) - blockCoordinate(vertices, 0, axis);
+          int o = i * MeshBuffer.STRIDE;
+          gradients[axis * 2] = (vertices[o + 6] - vertices[6]) / step;
+          gradients[axis * 2 + 1] = (vertices[o + 7] - vertices[7]) / step;
+          break;
+        }
+      }
+    }
+    return gradients;
+  }
+
+  private static boolean differsOnlyAlong(float[] vertices, int i, int j, int axis) {
+    for (int other = 0; other < 3; other++) {
+      boolean same = blockCoordinate(vertices, i, other) == blockCoordinate(vertices, j, other);
+      if (same == (other == axis)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param gradients change of u and v per block along x, y and z, interleaved
+   */
+  record UnitFace(PackedShape shape, float[] gradients) {}
+}
@@ -0,0 +1,137 @@
+package com.mygdx.game.next.world;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ShortArray;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import com.mygdx.game.next.shapes.PackedShape;
+
+import lombok.Getter;
+
+import static com.mygdx.game.next.blocks.Block.S;
+
+/**
+ * The blocks of chunks grouped by shape for instanced rendering: every distinct shape is stored
+ * once, together with the offsets of all blocks that use it. Blocks with faces hidden by their
+ * neighbours form shapes of their own, so the result has no hidden faces either.
+ *
+ * <p>Every face samples the atlas region of the texture of its side, see {@link ChunkMesher}. A
+ * shape whose textures are on several atlas pages is split into a group per page.
+ *
+ * <p>This pays off for sparse scenes that repeat a few shapes, where merged chunk meshes would
+ * mostly hold copies of the same faces. Only produces CPU side data, like the {@link ChunkMesher}.
+ */
+public class ShapeInstances {
+  /** Floats per instance: the x, y and z offset of the block. */
+  public static final int INSTANCE_STRIDE = 3;
+
+  @Getter private final AtlasLayout layout;
+  @Getter private final Array<Group> groups = new Array<>();
+  @Getter private int instanceCount;
+
+  private ShapeInstances(AtlasLayout layout) {
+    this.layout = layout;
+  }
+
+  /** @param view the world around the chunks, for hiding faces covered by a neighbour */
+  public static ShapeInstances build(Iterable<Chunk> chunks, BlockView view, AtlasLayout layout) {
+    var result = new ShapeInstances(layout);
+    var offsetsByShape = new ObjectMap<BlockProperties, FloatArray>();
+    for (Chunk chunk : chunks) {
+      int bx = chunk.getCx() * Chunk.SIZE;
+      int by = chunk.getCy() * Chunk.SIZE;
+      int bz = chunk.getCz() * Chunk.SIZE;
+      for (int ly = 0; ly < Chunk.SIZE; ly++) {
+        for (int lz = 0; lz < Chunk.SIZE; lz++) {
+          for (int lx = 0; lx < Chunk.SIZE; lx++) {
+            var properties = chunk.get(lx, ly, lz);
+            if (properties == null) {
+              continue;
+            }
+            var visibleSides =
+                FaceCuller.getVisibleSides(view, bx + lx, by + ly, bz + lz, properties);
+            if (visibleSides.isEmpty()) {
+              continue;
+            }
+            var shape =
+                visibleSides == properties.getSides()
+                    ? properties
+                    : properties.withSides(visibleSides);
+            FloatArray offsets = offsetsByShape.get(shape);
+            if (offsets == null) {
+              offsets = new FloatArray();
+              offsetsByShape.put(shape, offsets);
+            }
+            offsets.add((bx + lx) * S, (by + ly) * S, (bz + lz) * S);
+          }
+        }
+      }
+    }
+
+    for (ObjectMap.Entry<BlockProperties, FloatArray> entry : offsetsByShape.entries()) {
+      float[] offsets = entry.value.toArray();
+      for (IntMap.Entry<PackedShape> page : splitByPage(entry.key, layout).entries()) {
+        result.groups.add(new Group(entry.key, page.key, page.value, offsets));
+      }
+      result.instanceCount += entry.value.size / INSTANCE_STRIDE;
+    }
+    return result;
+  }
+
+  /**
+   * Copies the faces of a shape into a shape per atlas page, with the texture coordinates moved
+   * into the region of the texture of their side. Faces do not share vertices, so all vertices of
+   * a triangle are on the same page.
+   */
+  static IntMap<PackedShape> splitByPage(BlockProperties properties, AtlasLayout layout) {
+    var packed = FaceGenerator.getPacked(properties);
+    float[] source = packed.vertices();
+    short[] indices = packed.indices();
+    var vertices = new IntMap<FloatArray>();
+    var pageIndices = new IntMap<ShortArray>();
+    int[] pages = new int[packed.vertexCount()];
+    short[] remapped = new short[packed.vertexCount()];
+    for (int v = 0; v < packed.vertexCount(); v++) {
+      int o = v * MeshBuffer.STRIDE;
+      var side = ChunkMesher.sideOf(source[o + 3], source[o + 4], source[o + 5]);
+      var region = layout.get(properties.getTexture(side));
+      FloatArray target = vertices.get(region.page());
+      if (target == null) {
+        target = new FloatArray();
+        vertices.put(region.page(), target);
+        pageIndices.put(region.page(), new ShortArray());
+      }
+      pages[v] = region.page();
+      remapped[v] = (short) (target.size / MeshBuffer.STRIDE);
+      target.addAll(source, o, MeshBuffer.STRIDE - 2);
+      target.add(region.u(source[o + 6]), region.v(source[o + 7]));
+    }
+    for (short index : indices) {
+      int v = index & 0xFFFF;
+      pageIndices.get(pages[v]).add(remapped[v]);
+    }
+    var result = new IntMap<PackedShape>();
+    for (IntMap.Entry<FloatArray> entry : vertices.entries()) {
+      result.put(
+          entry.key,
+          new PackedShape(entry.value.toArray(), pageIndices.get(entry.key).toArray()));
+    }
+    return result;
+  }
+
+  /**
+   * @param properties the block with its visible sides, equal for the groups of a split shape
+   * @param shape vertices in the layout of {@link MeshBuffer}, relative to the block origin, with
+   *     atlas coordinates on {@code page}
+   * @param offsets {@link #INSTANCE_STRIDE} floats per block, shared by the groups of a split shape
+   */
+  public record Group(BlockProperties properties, int page, PackedShape shape, float[] offsets) {
+    public int getInstanceCount() {
+      return offsets.length / INSTANCE_STRIDE;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.mygdx.game.next;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.Random;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.raycast.BlockCaster;
+import com.mygdx.game.next.raycast.RayHit;
+import com.mygdx.game.next.render.FrustumCuller;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.mygdx.game.next.blocks.Block.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** The paths that run for every block or every frame must not allocate once they are warm. */
+class AllocationTest {
+  private static final int ROUNDS = 200;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  @BeforeAll
+  static void setUp() {
+    assumeTrue(
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported());
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  void writingCachedShapesDoesNotAllocate() {
+    var shapes = shapes();
+    var buffer = new MeshBuffer();
+    Runnable write =
+        () -> {
+          buffer.clear();
+          for (int i = 0; i < shapes.length; i++) {
+            FaceGenerator.write(shapes[i], i * S, 0, 0, buffer);
+          }
+        };
+
+    assertThat(allocatedBytes(write)).isZero();
+  }
+
+  @Test
+  void castingRaysDoesNotAllocate() {
+    var random = new Random(1);
+    var shapes = shapes();
+    var world = new World(16, 8, 16);
+    for (int x = 0; x < 16; x++) {
+      for (int z = 0; z < 16; z++) {
+        world.setBlockAt(x, random.nextInt(8), z, shapes[random.nextInt(shapes.length)]);
+      }
+    }
+    var caster = new BlockCaster(world);
+    var hit = new RayHit();
+    var rays = new Ray[64];
+    for (int i = 0; i < rays.length; i++) {
+      var target = new Vector3(random.nextFloat() * 16, 0, random.nextFloat() * 16).scl(S);
+      var origin = new Vector3(random.nextFloat() * 16 * S, 20 * S, random.nextFloat() * 16 * S);
+      rays[i] = new Ray(origin, target.sub(origin).nor());
+    }
+    int[] hits = new int[1];
+    Runnable cast =
+        () -> {
+          for (Ray ray : rays) {
+            if (caster.cast(ray, hit)) {
+              hits[0]++;
+            }
+          }
+        };
+
+    assertThat(allocatedBytes(cast)).isZero();
+    assertThat(hits[0]).isPositive();
+  }
+
+  @Test
+  void cullingChunkMeshesDoesNotAllocate() {
+    // Updating a camera needs the natives, so the frustum just keeps what is in front of z = 0.
+    var frustum = new Frustum();
+    frustum.planes[0].set(0, 0, -1, 0);
+    var culler = new FrustumCuller<Bounded>();
+    for (int i = 0; i < 64; i++) {
+      // Every other chunk is behind the plane.
+      float z = (i % 2 == 0 ? -1 : 1) * (i / 2 * 16 + 10);
+      culler.add(new Bounded(new Vector3(-8, -8, z - 8), new Vector3(8, 8, z + 8)));
+    }
+    var visible = new Array<Bounded>(false, 64, Bounded.class);
+    int[] counts = new int[1];
+    Runnable cull = () -> counts[0] = culler.cull(frustum, visible);
+
+    assertThat(allocatedBytes(cull)).isZero();
+    assertThat(counts[0]).isEqualTo(culler.size() / 2);
+  }
+
+  private static BlockProperties[] shapes() {
+    var sides = EnumSet.allOf(Side.class);
+    return new BlockProperties[] {
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, sides, 0, 1),
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.of(Side.TOP), 0, 1),
+      new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, sides, 0.5f, 1),
+      new BlockProperties(Type.PILLAR_CENTER, BlockOrientation.SOUTH, sides, 0, 1),
+      new BlockProperties(Type.PILLAR_CORNER, BlockOrientation.WEST, sides, 0, 1),
+    };
+  }
+
+  private static class Bounded extends FrustumCuller.Item {
+    private final BoundingBox bounds;
+
+    Bounded(Vector3 min, Vector3 max) {
+      bounds = new BoundingBox(min, max);
+    }
+
+    @Override
+    public BoundingBox getBounds() {
+      return bounds;
+    }
+  }
+
+  /** Bytes allocated by the last of many runs, so caches are filled and code is compiled. */
+  private static long allocatedBytes(Runnable runnable) {
+    for (int i = 0; i < ROUNDS; i++) {
+      runnable.run();
+    }
+    // Measuring itself might allocate, so only count what a run adds to that.
+    long baseline = measure(() -> {});
+    return Math.max(0, measure(runnable) - baseline);
+  }
+
+  private static long measure(Runnable runnable) {
+    long before = threads.getCurrentThreadAllocatedBytes();
+    runnable.run();
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+}
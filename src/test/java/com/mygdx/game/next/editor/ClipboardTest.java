@@ -0,0 +1,124 @@
+package com.mygdx.game.next.editor;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.util.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClipboardTest {
+  private static final BlockProperties SLOPE =
+      new BlockProperties(
+          Type.SLOPE_HALF,
+          BlockOrientation.NORTH,
+          EnumSet.of(Side.TOP, Side.BACK),
+          0,
+          1,
+          "stone.png",
+          Map.of(Side.BACK, "back.png", Side.TOP, "top.png"));
+  private static final BlockProperties QUBE =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+
+  private World world;
+
+  @BeforeEach
+  void setUp() {
+    world = new World(40, 4, 40);
+    // The copied box is 3 blocks wide in x and 2 deep in z.
+    world.setBlockAt(0, 0, 0, SLOPE);
+    world.setBlockAt(2, 1, 1, QUBE);
+  }
+
+  @Test
+  void pastesUnrotated() {
+    var clipboard = Clipboard.copy(world, new Vector3i(2, 1, 1), new Vector3i(0, 0, 0));
+
+    clipboard.paste(world, new Vector3i(20, 0, 20));
+
+    assertThat(world.getProperties(20, 0, 20)).isEqualTo(SLOPE);
+    assertThat(world.getProperties(22, 1, 21)).isEqualTo(QUBE);
+    assertThat(clipboard.getPasteSize()).isEqualTo(new Vector3i(3, 2, 2));
+  }
+
+  @Test
+  void rotatesCellsAndBlocksClockwise() {
+    var clipboard = Clipboard.copy(world, new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+    clipboard.rotateClockwise();
+
+    clipboard.paste(world, new Vector3i(20, 0, 20));
+
+    assertThat(clipboard.getPasteSize()).isEqualTo(new Vector3i(2, 2, 3));
+    // (x, z) moves to (sizeZ - 1 - z, x).
+    var slope = world.getProperties(21, 0, 20);
+    assertThat(slope.getOrientation()).isEqualTo(BlockOrientation.EAST);
+    assertThat(slope.getSides()).containsExactlyInAnyOrder(Side.TOP, Side.RIGHT);
+    assertThat(slope.getFaceTextures())
+        .containsOnly(Map.entry(Side.RIGHT, "back.png"), Map.entry(Side.TOP, "top.png"));
+    assertThat(slope.getTexture()).isEqualTo("stone.png");
+    assertThat(world.getProperties(20, 1, 22).getOrientation()).isEqualTo(BlockOrientation.EAST);
+    assertThat(world.getProperties(20, 0, 20)).isNull();
+  }
+
+  @Test
+  void rotatesCounterClockwise() {
+    var clipboard = Clipboard.copy(world, new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+    clipboard.rotateCounterClockwise();
+
+    clipboard.paste(world, new Vector3i(20, 0, 20));
+
+    // Three clockwise turns: (x, z) moves to (z, sizeX - 1 - x).
+    var slope = world.getProperties(20, 0, 22);
+    assertThat(slope.getOrientation()).isEqualTo(BlockOrientation.WEST);
+    assertThat(slope.getSides()).containsExactlyInAnyOrder(Side.TOP, Side.LEFT);
+    assertThat(slope.getFaceTextures()).containsEntry(Side.LEFT, "back.png");
+    assertThat(world.getProperties(21, 1, 20))
+        .isEqualTo(QUBE.withOrientation(BlockOrientation.WEST));
+  }
+
+  @Test
+  void fullTurnPastesTheOriginal() {
+    var clipboard = Clipboard.copy(world, new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+    for (int i = 0; i < 4; i++) {
+      clipboard.rotateClockwise();
+    }
+
+    clipboard.paste(world, new Vector3i(20, 0, 20));
+
+    assertThat(clipboard.getRotation()).isZero();
+    assertThat(world.getProperties(20, 0, 20)).isEqualTo(SLOPE);
+    assertThat(world.getProperties(22, 1, 21)).isEqualTo(QUBE);
+  }
+
+  @Test
+  void keepsTheCopiedBlocksWhenTheWorldChanges() {
+    var clipboard = Clipboard.copy(world, new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+
+    world.clear(new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+    world.setBlockAt(1, 0, 0, QUBE);
+    clipboard.paste(world, new Vector3i(0, 0, 0));
+
+    assertThat(world.getProperties(0, 0, 0)).isEqualTo(SLOPE);
+    assertThat(world.getProperties(2, 1, 1)).isEqualTo(QUBE);
+    // Empty cells of the copy are pasted as well.
+    assertThat(world.getProperties(1, 0, 0)).isNull();
+  }
+
+  @Test
+  void cutsOffWhatIsOutsideOfTheWorld() {
+    var clipboard = Clipboard.copy(world, new Vector3i(0, 0, 0), new Vector3i(2, 1, 1));
+
+    clipboard.paste(world, new Vector3i(38, 3, 39));
+
+    assertThat(clipboard.getPasteMax(world, new Vector3i(38, 3, 39)))
+        .isEqualTo(new Vector3i(39, 3, 39));
+    assertThat(world.getProperties(38, 3, 39)).isEqualTo(SLOPE);
+  }
+}
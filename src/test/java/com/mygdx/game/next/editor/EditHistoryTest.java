@@ -0,0 +1,113 @@
+package com.mygdx.game.next.editor;
+
+import java.util.EnumSet;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.util.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EditHistoryTest {
+  private static final BlockProperties QUBE =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+  private static final BlockProperties SLOPE =
+      new BlockProperties(Type.SLOPE_HALF, BlockOrientation.EAST, EnumSet.allOf(Side.class), 0, 1);
+
+  private final World world = new World(64, 16, 64);
+
+  @Test
+  void undoesAndRedoesEdits() {
+    var history = new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES);
+    var a = new Vector3i(1, 1, 1);
+    var b = new Vector3i(40, 3, 20);
+    world.setBlockAt(5, 2, 5, SLOPE);
+
+    history.record(a, b, () -> world.fill(a, b, QUBE));
+    history.record(a, a, () -> world.setBlockAt(a, SLOPE));
+
+    assertThat(history.undo()).isTrue();
+    assertThat(world.getProperties(1, 1, 1)).isEqualTo(QUBE);
+    assertThat(history.undo()).isTrue();
+    assertThat(world.getProperties(1, 1, 1)).isNull();
+    assertThat(world.getProperties(5, 2, 5)).isEqualTo(SLOPE);
+    assertThat(world.getProperties(40, 3, 20)).isNull();
+    assertThat(history.undo()).isFalse();
+
+    assertThat(history.redo()).isTrue();
+    assertThat(world.getProperties(5, 2, 5)).isEqualTo(QUBE);
+    assertThat(world.getProperties(40, 3, 20)).isEqualTo(QUBE);
+    assertThat(history.redo()).isTrue();
+    assertThat(world.getProperties(1, 1, 1)).isEqualTo(SLOPE);
+    assertThat(history.redo()).isFalse();
+  }
+
+  @Test
+  void ignoresEditsWithoutChanges() {
+    var history = new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES);
+    var a = new Vector3i(0, 0, 0);
+    var b = new Vector3i(3, 3, 3);
+
+    history.record(a, b, () -> world.clear(a, b));
+
+    assertThat(history.getUndoCount()).isZero();
+    assertThat(history.getBytes()).isZero();
+  }
+
+  @Test
+  void newEditDiscardsRedos() {
+    var history = new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES);
+    var a = new Vector3i(2, 2, 2);
+    history.record(a, a, () -> world.setBlockAt(a, QUBE));
+    long bytesOfOne = history.getBytes();
+    history.record(a, a, () -> world.setBlockAt(a, SLOPE));
+    history.undo();
+
+    history.record(a, a, () -> world.setBlockAt(a, null));
+
+    assertThat(history.getRedoCount()).isZero();
+    assertThat(history.getUndoCount()).isEqualTo(2);
+    assertThat(history.getBytes()).isEqualTo(2 * bytesOfOne);
+  }
+
+  @Test
+  void largeUniformEditsAreSmall() {
+    var history = new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES);
+    var a = new Vector3i(0, 0, 0);
+    var b = new Vector3i(63, 15, 63);
+
+    history.record(a, b, () -> world.fill(a, b, QUBE));
+
+    // One run before and one after, instead of an id per cell.
+    assertThat(history.getBytes()).isLessThan(256);
+  }
+
+  @Test
+  void dropsOldestEditsBeyondTheLimit() {
+    var probe = new EditHistory(world, EditHistory.DEFAULT_MAX_BYTES);
+    var cell = new Vector3i(0, 0, 0);
+    probe.record(cell, cell, () -> world.setBlockAt(cell, QUBE));
+    long bytesOfOne = probe.getBytes();
+    world.setBlockAt(cell, null);
+
+    long maxBytes = bytesOfOne * 5 + bytesOfOne / 2;
+    var history = new EditHistory(world, maxBytes);
+    for (int x = 0; x < 20; x++) {
+      var at = new Vector3i(x, 0, 0);
+      history.record(at, at, () -> world.setBlockAt(at, QUBE));
+      assertThat(history.getBytes()).isLessThanOrEqualTo(maxBytes);
+    }
+
+    assertThat(history.getUndoCount()).isEqualTo(5);
+    while (history.undo()) {
+      // Undo everything that is left.
+    }
+    assertThat(world.getProperties(14, 0, 0)).isEqualTo(QUBE);
+    assertThat(world.getProperties(15, 0, 0)).isNull();
+    assertThat(world.getProperties(19, 0, 0)).isNull();
+  }
+}
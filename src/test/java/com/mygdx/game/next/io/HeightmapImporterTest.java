@@ -0,0 +1,90 @@
+package com.mygdx.game.next.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.EnumSet;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HeightmapImporterTest {
+  private static final BlockProperties GROUND =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+  private static final BlockProperties HOUSE =
+      new BlockProperties(
+          Type.PILLAR_CENTER, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+
+  @Test
+  void fillsColumnsUpToTheHeight() throws IOException {
+    var world = new World(20, 20, 20);
+
+    importText(world, "102\n3", 2);
+
+    assertThat(columnHeight(world, 0, 0)).isEqualTo(2);
+    assertThat(columnHeight(world, 1, 0)).isZero();
+    assertThat(columnHeight(world, 2, 0)).isEqualTo(4);
+    assertThat(columnHeight(world, 0, 1)).isEqualTo(6);
+    assertThat(columnHeight(world, 1, 1)).isZero();
+    assertThat(world.getProperties(0, 0, 0)).isEqualTo(GROUND);
+  }
+
+  @Test
+  void clampsToTheWorld() throws IOException {
+    var world = new World(2, 4, 1);
+
+    importText(world, "999\n9", 1);
+
+    assertThat(columnHeight(world, 0, 0)).isEqualTo(4);
+    assertThat(columnHeight(world, 1, 0)).isEqualTo(4);
+  }
+
+  @Test
+  void measuresTextBeforeImporting() throws IOException {
+    var size = HeightmapImporter.measureText(new BufferedReader(new StringReader("12\n3456\n7")));
+
+    assertThat(size).isEqualTo(new HeightmapImporter.TextSize(4, 3));
+  }
+
+  @Test
+  void keepsBlocksOutsideOfTheTerrain() throws IOException {
+    var world = new World(20, 20, 20);
+    world.setBlockAt(0, 5, 0, HOUSE);
+    world.setBlockAt(1, 0, 0, HOUSE);
+
+    importText(world, "22", 1);
+
+    assertThat(world.getProperties(0, 5, 0)).isEqualTo(HOUSE);
+    assertThat(world.getProperties(1, 0, 0)).isEqualTo(GROUND);
+    assertThat(world.getProperties(0, 1, 0)).isEqualTo(GROUND);
+  }
+
+  @Test
+  void rejectsInvalidSamples() {
+    var world = new World(4, 4, 4);
+
+    assertThatThrownBy(() -> importText(world, "12\n1x", 1))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("line 2");
+  }
+
+  private static void importText(World world, String text, float scale) throws IOException {
+    new HeightmapImporter(world, GROUND, scale, 2)
+        .importText(new BufferedReader(new StringReader(text)));
+  }
+
+  private static int columnHeight(World world, int x, int z) {
+    int height = 0;
+    while (height < world.getH() && world.getProperties(x, height, z) != null) {
+      height++;
+    }
+    return height;
+  }
+}
@@ -0,0 +1,66 @@
+package com.mygdx.game.next.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.world.Chunk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegionFileTest {
+  private static final int W = Chunk.SIZE * RegionFile.SIZE;
+
+  @TempDir Path directory;
+
+  @Test
+  void reusesTheSectorsOfMovedAndRemovedChunks() throws IOException {
+    var path = directory.resolve("region");
+    long size = 0;
+    try (var file = new RegionFile(path)) {
+      // Every write moves the chunk, and growing chunks no longer fit where they were.
+      for (int i = 0; i < 200; i++) {
+        file.write(chunk(0, i % 2 == 0 ? Chunk.VOLUME : 1));
+        file.write(chunk(1, i % 2 == 0 ? 1 : Chunk.VOLUME));
+        file.write(chunk(2, Chunk.VOLUME));
+        file.remove(2, 0, 0);
+        if (i == 0) {
+          size = Files.size(path);
+        }
+      }
+
+      assertThat(Files.size(path)).isEqualTo(size);
+      assertThat(file.read(0, 0, 0, W, W, W).get(5, 0, 0)).isNull();
+      assertThat(file.read(1, 0, 0, W, W, W).get(5, 0, 0)).isNotNull();
+    }
+
+    try (var file = new RegionFile(path)) {
+      file.write(chunk(3, Chunk.VOLUME));
+
+      assertThat(Files.size(path)).isEqualTo(size);
+      assertThat(file.read(2, 0, 0, W, W, W)).isNull();
+      assertThat(file.read(3, 0, 0, W, W, W).get(5, 0, 0)).isNotNull();
+    }
+  }
+
+  /** A chunk with {@code blocks} cells of alternating blocks, which do not compress well. */
+  private static Chunk chunk(int cx, int blocks) {
+    var chunk = new Chunk(cx, 0, 0);
+    for (int i = 0; i < blocks; i++) {
+      chunk.set(
+          i % Chunk.SIZE,
+          i / Chunk.SIZE % Chunk.SIZE,
+          i / (Chunk.SIZE * Chunk.SIZE),
+          new BlockProperties(
+              Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1 + i % 64));
+    }
+    return chunk;
+  }
+}
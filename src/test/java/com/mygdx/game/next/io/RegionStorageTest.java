@@ -0,0 +1,95 @@
+package com.mygdx.game.next.io;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.world.Chunk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegionStorageTest {
+  private static final BlockProperties BLOCK =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+
+  @TempDir Path directory;
+
+  @Test
+  void createsStorageFromWorld() throws IOException {
+    var source = new World(Chunk.SIZE * 8, Chunk.SIZE, Chunk.SIZE);
+    source.setBlockAt(1, 2, 3, BLOCK);
+    source.setBlockAt(Chunk.SIZE * 7 + 5, 6, 7, BLOCK);
+
+    RegionStorage.create(directory, source).dispose();
+
+    assertThat(RegionStorage.exists(directory)).isTrue();
+    var world = new World(RegionStorage.open(directory), 4);
+    try {
+      assertThat(world.getChunkCount()).isZero();
+      assertThat(world.getBlockAt(1, 2, 3).getProperties()).isEqualTo(BLOCK);
+      assertThat(world.getBlockAt(Chunk.SIZE * 7 + 5, 6, 7).getProperties()).isEqualTo(BLOCK);
+      assertThat(world.getBlockAt(4, 4, 4)).isNull();
+    } finally {
+      world.dispose();
+    }
+  }
+
+  @Test
+  void refusesExistingStorage() throws IOException {
+    RegionStorage.create(directory, 16, 16, 16).dispose();
+
+    assertThatThrownBy(() -> RegionStorage.create(directory, new World(16, 16, 16)))
+        .isInstanceOf(FileAlreadyExistsException.class);
+  }
+
+  @Test
+  void loadsChunksAroundAndEvictsFarOnes() throws IOException {
+    int chunks = 12;
+    var source = new World(Chunk.SIZE * chunks, Chunk.SIZE, Chunk.SIZE);
+    for (int cx = 0; cx < chunks; cx++) {
+      source.setBlockAt(cx * Chunk.SIZE, 0, 0, BLOCK);
+    }
+    var world = new World(RegionStorage.create(directory, source), 4);
+    try {
+      world.loadChunksAround(0, 0, 0, 1);
+
+      assertThat(world.getProperties(0, 0, 0)).isEqualTo(BLOCK);
+      assertThat(world.getProperties(Chunk.SIZE, 0, 0)).isEqualTo(BLOCK);
+      assertThat(world.getProperties(Chunk.SIZE * 2, 0, 0)).isNull();
+
+      world.loadChunksAround(chunks - 1, 0, 0, 1);
+
+      assertThat(world.getChunkCount()).isLessThanOrEqualTo(4);
+      assertThat(world.getProperties(Chunk.SIZE * (chunks - 1), 0, 0)).isEqualTo(BLOCK);
+      assertThat(world.getProperties(Chunk.SIZE * (chunks - 2), 0, 0)).isEqualTo(BLOCK);
+    } finally {
+      world.dispose();
+    }
+  }
+
+  @Test
+  void writesBackChangedChunksOnEviction() throws IOException {
+    int chunks = 12;
+    var world = new World(RegionStorage.create(directory, chunks * Chunk.SIZE, 16, 16), 4);
+    try {
+      for (int cx = 0; cx < chunks; cx++) {
+        world.setBlockAt(cx * Chunk.SIZE + 1, 1, 1, BLOCK);
+      }
+      assertThat(world.getChunkCount()).isLessThanOrEqualTo(4);
+      for (int cx = 0; cx < chunks; cx++) {
+        assertThat(world.getBlockAt(cx * Chunk.SIZE + 1, 1, 1)).isNotNull();
+      }
+    } finally {
+      world.dispose();
+    }
+  }
+}
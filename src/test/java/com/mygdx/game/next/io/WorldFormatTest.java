@@ -0,0 +1,140 @@
+package com.mygdx.game.next.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Random;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.util.Vector3i;
+import com.mygdx.game.next.world.BlockPalette;
+import com.mygdx.game.next.world.Chunk;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorldFormatTest {
+  private static final BlockProperties QUBE =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+  private static final BlockProperties SLOPE =
+      new BlockProperties(
+          Type.SLOPE_HALF,
+          BlockOrientation.WEST,
+          EnumSet.of(Side.TOP, Side.LEFT),
+          0.5f,
+          1,
+          "stone.png",
+          Map.of(Side.TOP, "grass.png"));
+
+  @Test
+  void roundTripsBlocks() throws IOException {
+    var world = new World(40, 20, 24);
+    var random = new Random(3);
+    for (int i = 0; i < 2000; i++) {
+      world.setBlockAt(
+          random.nextInt(40),
+          random.nextInt(20),
+          random.nextInt(24),
+          random.nextBoolean() ? QUBE : SLOPE);
+    }
+    // A full chunk is a single run.
+    world.fill(new Vector3i(16, 0, 0), new Vector3i(31, 15, 15), QUBE);
+
+    var copy = readBack(world);
+
+    assertThat(copy.getW()).isEqualTo(40);
+    assertThat(copy.getH()).isEqualTo(20);
+    assertThat(copy.getD()).isEqualTo(24);
+    assertThat(copy.getChunkCount()).isEqualTo(world.getChunkCount());
+    for (int x = 0; x < 40; x++) {
+      for (int y = 0; y < 20; y++) {
+        for (int z = 0; z < 24; z++) {
+          assertThat(copy.getProperties(x, y, z)).isEqualTo(world.getProperties(x, y, z));
+        }
+      }
+    }
+  }
+
+  @Test
+  void roundTripsEmptyWorld() throws IOException {
+    var copy = readBack(new World(8, 8, 8));
+
+    assertThat(copy.getChunkCount()).isZero();
+  }
+
+  @Test
+  void rejectsOtherFiles() {
+    var channel = Channels.newChannel(new ByteArrayInputStream(new byte[64]));
+
+    assertThatThrownBy(() -> WorldFormat.read(channel))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Not a world file");
+  }
+
+  @Test
+  void rejectsTruncatedFiles() throws IOException {
+    var world = new World(16, 16, 16);
+    world.setBlockAt(1, 2, 3, SLOPE);
+    byte[] bytes = write(world);
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+    var channel = Channels.newChannel(new ByteArrayInputStream(truncated));
+
+    assertThatThrownBy(() -> WorldFormat.read(channel)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void chunkCodecRejectsTypesWithoutGenerator() throws IOException {
+    var palette = new ChunkCodec.Palette();
+    palette.indexOf(
+        BlockPalette.intern(
+            new BlockProperties(
+                Type.SLOPE_QUARTER, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1)));
+    var buffer = ByteBuffer.allocate(1 << 10);
+    ChunkCodec.writePalette(bytes -> buffer, palette);
+    buffer.flip();
+
+    assertThatThrownBy(() -> ChunkCodec.readPalette(bytes -> buffer, 1))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("Corrupt palette entry");
+  }
+
+  @Test
+  void chunkCodecRejectsBlocksOutsideOfTheWorld() throws IOException {
+    var chunk = new Chunk(1, 0, 0);
+    chunk.set(15, 0, 0, QUBE);
+    var palette = new ChunkCodec.Palette();
+    palette.addAll(chunk);
+    var buffer = ByteBuffer.allocate(1 << 16);
+    ChunkCodec.writeChunk(bytes -> buffer, chunk, palette, new int[Chunk.VOLUME * 2]);
+    buffer.flip();
+    int[] ids = {BlockPalette.intern(QUBE)};
+
+    var read = ChunkCodec.readChunk(bytes -> buffer, ids, 32, 16, 16);
+    buffer.rewind();
+
+    assertThat(read.get(15, 0, 0)).isEqualTo(QUBE);
+    assertThatThrownBy(() -> ChunkCodec.readChunk(bytes -> buffer, ids, 24, 16, 16))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("outside of the world");
+  }
+
+  private static World readBack(World world) throws IOException {
+    return WorldFormat.read(Channels.newChannel(new ByteArrayInputStream(write(world))));
+  }
+
+  private static byte[] write(World world) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    WorldFormat.write(world, Channels.newChannel(bytes));
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,208 @@
+package com.mygdx.game.next.raycast;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.FaceGenerator;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static com.mygdx.game.next.blocks.Block.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BlockCasterTest {
+  private static final int W = 8;
+  private static final int H = 5;
+  private static final int D = 8;
+  private static final float EPSILON = 1e-3f * S;
+
+  @Test
+  void castMatchesBruteForce() {
+    var random = new Random(42);
+    var world = createWorld(random);
+    var caster = new BlockCaster(world);
+    var hit = new RayHit();
+    var center = new Vector3(W * S / 2f, H * S / 2f, D * S / 2f);
+    int hits = 0;
+    for (int i = 0; i < 5000; i++) {
+      var origin =
+          new Vector3(
+                  (float) random.nextGaussian(),
+                  (float) random.nextGaussian(),
+                  (float) random.nextGaussian())
+              .nor()
+              .scl(2 * W * S)
+              .add(center);
+      var target =
+          new Vector3(random.nextFloat() * W, random.nextFloat() * H, random.nextFloat() * D);
+      var ray = new Ray(origin, target.scl(S).sub(origin).nor());
+
+      var expected = bruteForce(world, ray);
+      boolean found = caster.cast(ray, hit);
+
+      assertThat(found).as("ray %s", ray).isEqualTo(expected != null);
+      if (!found) {
+        continue;
+      }
+      hits++;
+      assertThat(hit.distance).as("ray %s", ray).isCloseTo(expected.distance, within(EPSILON));
+      if (!hit.cell.equals(expected.cell)) {
+        // Only acceptable if the ray passes through an edge where both blocks meet.
+        assertThat(hit.distance).isCloseTo(expected.distance, within(EPSILON));
+        continue;
+      }
+      var normal = new Vector3(hit.normal.x, hit.normal.y, hit.normal.z);
+      assertThat(normal.len2()).as("ray %s", ray).isEqualTo(1);
+      assertThat(normal.dot(ray.direction)).as("ray %s", ray).isLessThan(0);
+      if (world.getProperties(hit.cell.x, hit.cell.y, hit.cell.z).getType() == Type.QUBE) {
+        // Near an edge either face may be reported, but the hit must lie on the one that is.
+        var point = ray.getEndPoint(new Vector3(), hit.distance).scl(1f / S);
+        var face = new Vector3(hit.cell.x, hit.cell.y, hit.cell.z).add(0.5f).mulAdd(normal, 0.5f);
+        assertThat(point.dot(normal))
+            .as("ray %s", ray)
+            .isCloseTo(face.dot(normal), within(EPSILON / S));
+      }
+    }
+    assertThat(hits).isGreaterThan(1000);
+  }
+
+  @Test
+  void missesEmptyWorld() {
+    var caster = new BlockCaster(new World(W, H, D));
+    var ray = new Ray(new Vector3(-10, 20, -10), new Vector3(1, 0, 1).nor());
+
+    assertThat(caster.cast(ray, new RayHit())).isFalse();
+  }
+
+  @Test
+  @Timeout(5)
+  void missesWithZeroDirection() {
+    var caster = new BlockCaster(new World(W, H, D));
+    var ray = new Ray(new Vector3(W * S / 2f, H * S / 2f, D * S / 2f), new Vector3());
+
+    assertThat(caster.cast(ray, new RayHit())).isFalse();
+  }
+
+  private static World createWorld(Random random) {
+    var world = new World(W, H, D);
+    var types = new Type[] {Type.QUBE, Type.SLOPE_HALF, Type.PILLAR_CENTER, Type.PILLAR_CORNER};
+    var orientations = BlockOrientation.values();
+    for (int x = 0; x < W; x++) {
+      for (int y = 0; y < H; y++) {
+        for (int z = 0; z < D; z++) {
+          if (random.nextInt(4) != 0) {
+            continue;
+          }
+          var type = types[random.nextInt(types.length)];
+          var orientation = orientations[random.nextInt(orientations.length)];
+          float h1 = type == Type.SLOPE_HALF ? random.nextInt(2) * 0.5f : 0;
+          var properties =
+              new BlockProperties(type, orientation, EnumSet.allOf(Side.class), h1, 1);
+          world.setBlockAt(x, y, z, properties);
+        }
+      }
+    }
+    return world;
+  }
+
+  /** Intersects the ray with every block of the world. */
+  private static RayHit bruteForce(World world, Ray ray) {
+    RayHit nearest = null;
+    var intersection = new Vector3();
+    for (int x = 0; x < world.getW(); x++) {
+      for (int y = 0; y < world.getH(); y++) {
+        for (int z = 0; z < world.getD(); z++) {
+          var properties = world.getProperties(x, y, z);
+          if (properties == null) {
+            continue;
+          }
+          float distance;
+          if (properties.getType() == Type.QUBE) {
+            var box =
+                new BoundingBox(
+                    new Vector3(x * S, y * S, z * S),
+                    new Vector3((x + 1) * S, (y + 1) * S, (z + 1) * S));
+            distance =
+                Intersector.intersectRayBounds(ray, box, intersection)
+                    ? intersection.dst(ray.origin)
+                    : -1;
+          } else {
+            distance = intersectTriangles(ray, properties, x, y, z);
+          }
+          if (distance >= 0 && (nearest == null || distance < nearest.distance)) {
+            nearest = new RayHit();
+            nearest.cell.set(x, y, z);
+            nearest.distance = distance;
+            if (properties.getType() == Type.QUBE) {
+              setBoxNormal(nearest, ray.getEndPoint(new Vector3(), distance));
+            }
+          }
+        }
+      }
+    }
+    return nearest;
+  }
+
+  private static float intersectTriangles(
+      Ray ray, BlockProperties properties, int x, int y, int z) {
+    var shape = FaceGenerator.getPackedWithAllSides(properties);
+    float[] vertices = shape.vertices();
+    short[] indices = shape.indices();
+    var corners = new Vector3[3];
+    var intersection = new Vector3();
+    float nearest = -1;
+    for (int i = 0; i < indices.length; i += 3) {
+      for (int j = 0; j < 3; j++) {
+        int o = indices[i + j] * MeshBuffer.STRIDE;
+        corners[j] =
+            new Vector3(vertices[o] + x * S, vertices[o + 1] + y * S, vertices[o + 2] + z * S);
+      }
+      var normal = corners[1].cpy().sub(corners[0]).crs(corners[2].cpy().sub(corners[0]));
+      if (normal.isZero()) {
+        continue;
+      }
+      if (Intersector.intersectRayTriangle(ray, corners[0], corners[1], corners[2], intersection)) {
+        float distance = intersection.dst(ray.origin);
+        if (nearest < 0 || distance < nearest) {
+          nearest = distance;
+        }
+      }
+    }
+    return nearest;
+  }
+
+  /** The normal of the face of the hit cell that the point lies on. */
+  private static void setBoxNormal(RayHit hit, Vector3 point) {
+    float[] offsets = {
+      point.x - hit.cell.x * S,
+      (hit.cell.x + 1) * S - point.x,
+      point.y - hit.cell.y * S,
+      (hit.cell.y + 1) * S - point.y,
+      point.z - hit.cell.z * S,
+      (hit.cell.z + 1) * S - point.z
+    };
+    int closest = 0;
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[closest]) {
+        closest = i;
+      }
+    }
+    int sign = closest % 2 == 0 ? -1 : 1;
+    switch (closest / 2) {
+      case 0 -> hit.normal.set(sign, 0, 0);
+      case 1 -> hit.normal.set(0, sign, 0);
+      default -> hit.normal.set(0, 0, sign);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.mygdx.game.next.shapes;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.badlogic.gdx.math.Vector3;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FaceGeneratorTest {
+  private static final Map<Side, Vector3> DIRECTIONS =
+      Map.of(
+          Side.TOP, new Vector3(0, 1, 0),
+          Side.LEFT, new Vector3(-1, 0, 0),
+          Side.RIGHT, new Vector3(1, 0, 0),
+          Side.BACK, new Vector3(0, 0, -1),
+          Side.FRONT, new Vector3(0, 0, 1));
+
+  @Test
+  void normalsPointToTheWorldSideForEveryOrientation() {
+    for (BlockOrientation orientation : BlockOrientation.values()) {
+      for (Side side : Side.values()) {
+        var properties = new BlockProperties(Type.QUBE, orientation, EnumSet.of(side), 0, 1);
+        var shape = FaceGenerator.getPacked(properties);
+
+        assertThat(shape.vertexCount()).isEqualTo(4);
+        for (int i = 0; i < shape.vertexCount(); i++) {
+          int o = i * MeshBuffer.STRIDE;
+          float[] vertices = shape.vertices();
+          var normal = new Vector3(vertices[o + 3], vertices[o + 4], vertices[o + 5]);
+          assertThat(normal.dst(DIRECTIONS.get(side)))
+              .as("%s %s", orientation, side)
+              .isCloseTo(0, within(1e-5f));
+        }
+      }
+    }
+  }
+
+  @Test
+  void rotatedSlopeTopLeansTheSameWay() {
+    var north = topNormal(BlockOrientation.NORTH);
+    var east = topNormal(BlockOrientation.EAST);
+
+    assertThat(north.y).isPositive();
+    assertThat(east.y).isCloseTo(north.y, within(1e-5f));
+    // A clockwise quarter turn seen from above takes -z to +x.
+    assertThat(east.x).isCloseTo(-north.z, within(1e-5f));
+    assertThat(east.z).isCloseTo(north.x, within(1e-5f));
+  }
+
+  @Test
+  void generatingLeavesSharedNormalsAlone() {
+    FaceGenerator.get(
+        new BlockProperties(
+            Type.PILLAR_CORNER, BlockOrientation.WEST, EnumSet.allOf(Side.class), 0, 1));
+    FaceGenerator.get(
+        new BlockProperties(Type.QUBE, BlockOrientation.SOUTH, EnumSet.allOf(Side.class), 0, 1));
+
+    assertThat(FaceGenerator.NORMAL_LEFT).isEqualTo(new Vector3(-1, 0, 0));
+    assertThat(FaceGenerator.NORMAL_FRONT).isEqualTo(new Vector3(0, 0, 1));
+    assertThat(FaceGenerator.NORMAL_TOP).isEqualTo(new Vector3(0, 1, 0));
+  }
+
+  private static Vector3 topNormal(BlockOrientation orientation) {
+    var properties =
+        new BlockProperties(Type.SLOPE_HALF, orientation, EnumSet.of(Side.TOP), 0, 1);
+    var vertices = FaceGenerator.getPacked(properties).vertices();
+    return new Vector3(vertices[3], vertices[4], vertices[5]).nor();
+  }
+}
@@ -0,0 +1,37 @@
+package com.mygdx.game.next.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkLodTest {
+  private final ChunkLod lod = new ChunkLod(100, 200, 10);
+
+  @Test
+  void switchesOnlyPastTheHysteresis() {
+    assertThat(lod.choose(ChunkLod.FULL, 105)).isEqualTo(ChunkLod.FULL);
+    assertThat(lod.choose(ChunkLod.FULL, 111)).isEqualTo(ChunkLod.BOXES);
+    assertThat(lod.choose(ChunkLod.BOXES, 95)).isEqualTo(ChunkLod.BOXES);
+    assertThat(lod.choose(ChunkLod.BOXES, 89)).isEqualTo(ChunkLod.FULL);
+    assertThat(lod.choose(ChunkLod.BOXES, 205)).isEqualTo(ChunkLod.BOXES);
+    assertThat(lod.choose(ChunkLod.BOXES, 211)).isEqualTo(ChunkLod.HEIGHTFIELD);
+    assertThat(lod.choose(ChunkLod.HEIGHTFIELD, 195)).isEqualTo(ChunkLod.HEIGHTFIELD);
+    assertThat(lod.choose(ChunkLod.HEIGHTFIELD, 189)).isEqualTo(ChunkLod.BOXES);
+  }
+
+  @Test
+  void skipsLevelsWhenTheDistanceJumps() {
+    assertThat(lod.choose(ChunkLod.FULL, 500)).isEqualTo(ChunkLod.HEIGHTFIELD);
+    assertThat(lod.choose(ChunkLod.HEIGHTFIELD, 0)).isEqualTo(ChunkLod.FULL);
+  }
+
+  @Test
+  void rejectsHysteresisBeyondTheDistance() {
+    assertThatThrownBy(() -> new ChunkLod(100, 200, 100))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new ChunkLod(100, 110, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new ChunkLod(0, 10, 0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,152 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.badlogic.gdx.utils.ObjectMap;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.Block;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import com.mygdx.game.next.util.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkMesherTest {
+  private static final AtlasLayout.Region SIDE = new AtlasLayout.Region(0, 0, 0, 0.5f, 0.5f);
+  private static final AtlasLayout.Region TOP = new AtlasLayout.Region(1, 0.5f, 0.5f, 1, 1);
+  private static final AtlasLayout LAYOUT =
+      new AtlasLayout(regions(Map.of("side.png", SIDE, "top.png", TOP)), SIDE);
+
+  private final World world = new World(Chunk.SIZE, 1, Chunk.SIZE);
+  private final ChunkMesher mesher = new ChunkMesher();
+
+  @Test
+  void mergedFacesUseTheAtlasPageOfTheirTexture() {
+    world.fill(
+        new Vector3i(0, 0, 0),
+        new Vector3i(Chunk.MASK, 0, Chunk.MASK),
+        block(Type.QUBE, EnumSet.allOf(Side.class)));
+
+    var data = mesher.build(new ChunkSnapshot(world.getChunk(0, 0, 0), world), LAYOUT);
+
+    // The top is one quad on its page, each of the four edges one quad on the main page.
+    assertThat(data.getParts().size).isEqualTo(2);
+    var top = part(data, TOP.page());
+    assertThat(vertexCount(top)).isEqualTo(4);
+    assertRegions(top, TOP);
+    assertThat(span(top, 6)).isEqualTo(Chunk.SIZE);
+    assertThat(span(top, 7)).isEqualTo(Chunk.SIZE);
+    var sides = part(data, SIDE.page());
+    assertThat(vertexCount(sides)).isEqualTo(4 * 4);
+    assertRegions(sides, SIDE);
+  }
+
+  @Test
+  void otherShapesStayOnThePageOfTheirMainTexture() {
+    world.setBlockAt(3, 0, 3, block(Type.SLOPE_HALF, EnumSet.of(Side.TOP, Side.BACK)));
+
+    var data = mesher.build(new ChunkSnapshot(world.getChunk(0, 0, 0), world), LAYOUT);
+
+    assertThat(data.getParts().size).isEqualTo(1);
+    var part = part(data, SIDE.page());
+    assertRegions(part, SIDE);
+    assertThat(span(part, 6)).isLessThanOrEqualTo(1);
+    assertThat(span(part, 7)).isLessThanOrEqualTo(1);
+  }
+
+  @Test
+  void heightfieldKeepsFarFewerFacesOfBumpyTerrain() {
+    var terrain = new World(Chunk.SIZE, Chunk.SIZE, Chunk.SIZE);
+    for (int x = 0; x < Chunk.SIZE; x++) {
+      for (int z = 0; z < Chunk.SIZE; z++) {
+        int height = 1 + (x * 7 + z * 3) % 5;
+        terrain.fill(
+            new Vector3i(x, 0, z),
+            new Vector3i(x, height - 1, z),
+            block(Type.QUBE, EnumSet.allOf(Side.class)));
+      }
+    }
+    var snapshot = new ChunkSnapshot(terrain.getChunk(0, 0, 0), terrain);
+
+    var full = mesher.build(snapshot, LAYOUT, ChunkLod.FULL);
+    var heightfield = mesher.build(snapshot, LAYOUT, ChunkLod.HEIGHTFIELD);
+
+    assertThat(vertexCount(heightfield) * 4).isLessThan(vertexCount(full));
+    assertThat(heightfield.getBounds().max.y).isEqualTo(5 * Block.S);
+    assertThat(heightfield.getBounds().min.y).isZero();
+  }
+
+  @Test
+  void heightfieldOfFlatTerrainIsAsSmallAsTheFullMesh() {
+    world.fill(
+        new Vector3i(0, 0, 0),
+        new Vector3i(Chunk.MASK, 0, Chunk.MASK),
+        block(Type.QUBE, EnumSet.allOf(Side.class)));
+    var snapshot = new ChunkSnapshot(world.getChunk(0, 0, 0), world);
+
+    var heightfield = mesher.build(snapshot, LAYOUT, ChunkLod.HEIGHTFIELD);
+
+    assertThat(vertexCount(heightfield))
+        .isEqualTo(vertexCount(mesher.build(snapshot, LAYOUT, ChunkLod.FULL)))
+        .isEqualTo(5 * 4);
+  }
+
+  private static BlockProperties block(Type type, EnumSet<Side> sides) {
+    return new BlockProperties(
+        type, BlockOrientation.NORTH, sides, 0, 1, "side.png", Map.of(Side.TOP, "top.png"));
+  }
+
+  private static ObjectMap<String, AtlasLayout.Region> regions(
+      Map<String, AtlasLayout.Region> regions) {
+    var result = new ObjectMap<String, AtlasLayout.Region>();
+    regions.forEach(result::put);
+    return result;
+  }
+
+  private static ChunkMeshData.Part part(ChunkMeshData data, int page) {
+    for (ChunkMeshData.Part part : data.getParts()) {
+      if (part.page() == page) {
+        return part;
+      }
+    }
+    throw new AssertionError("No part for page " + page);
+  }
+
+  private static int vertexCount(ChunkMeshData data) {
+    int count = 0;
+    for (ChunkMeshData.Part part : data.getParts()) {
+      count += vertexCount(part);
+    }
+    return count;
+  }
+
+  private static int vertexCount(ChunkMeshData.Part part) {
+    return part.vertices().length / ChunkMesher.STRIDE;
+  }
+
+  private static void assertRegions(ChunkMeshData.Part part, AtlasLayout.Region region) {
+    float[] vertices = part.vertices();
+    for (int o = MeshBuffer.STRIDE; o < vertices.length; o += ChunkMesher.STRIDE) {
+      assertThat(new float[] {vertices[o], vertices[o + 1], vertices[o + 2], vertices[o + 3]})
+          .containsExactly(
+              region.u0(), region.v0(), region.u1() - region.u0(), region.v1() - region.v0());
+    }
+  }
+
+  /** How far a float of the vertices ranges, in texture coordinates that is tiles. */
+  private static float span(ChunkMeshData.Part part, int offset) {
+    float[] vertices = part.vertices();
+    float min = Float.POSITIVE_INFINITY;
+    float max = Float.NEGATIVE_INFINITY;
+    for (int o = offset; o < vertices.length; o += ChunkMesher.STRIDE) {
+      min = Math.min(min, vertices[o]);
+      max = Math.max(max, vertices[o]);
+    }
+    return max - min;
+  }
+}
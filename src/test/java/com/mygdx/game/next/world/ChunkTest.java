@@ -0,0 +1,135 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkTest {
+  @Test
+  void widensCellsForManyDistinctBlocks() {
+    var chunk = new Chunk(0, 0, 0);
+    assertThat(chunk.getBitsPerCell()).isEqualTo(4);
+
+    for (int i = 0; i < 300; i++) {
+      chunk.setId(i * 13, id(i));
+    }
+
+    assertThat(chunk.getBitsPerCell()).isEqualTo(16);
+    assertThat(chunk.getBlockCount()).isEqualTo(300);
+    for (int i = 0; i < 300; i++) {
+      assertThat(chunk.getId(i * 13)).isEqualTo(id(i));
+    }
+    assertThat(chunk.getId(1)).isEqualTo(BlockPalette.AIR);
+  }
+
+  @Test
+  void reusesIndicesOfOverwrittenBlocks() {
+    var chunk = new Chunk(0, 0, 0);
+
+    for (int i = 0; i < 100; i++) {
+      // Only two ids are in use at any time, so the palette never needs more than 4 bits.
+      chunk.setId(0, id(i));
+      chunk.setId(1, id(i + 1));
+    }
+
+    assertThat(chunk.getBitsPerCell()).isEqualTo(4);
+    assertThat(chunk.getId(0)).isEqualTo(id(99));
+    assertThat(chunk.getId(1)).isEqualTo(id(100));
+  }
+
+  @Test
+  void countsBlocksAndVersions() {
+    var chunk = new Chunk(0, 0, 0);
+    int version = chunk.getVersion();
+
+    chunk.setId(5, id(0));
+    chunk.setId(5, id(0));
+    assertThat(chunk.getVersion()).isEqualTo(version + 1);
+    assertThat(chunk.isEmpty()).isFalse();
+    assertThat(chunk.isDirty()).isTrue();
+
+    chunk.setId(5, BlockPalette.AIR);
+    assertThat(chunk.isEmpty()).isTrue();
+    assertThat(chunk.getVersion()).isEqualTo(version + 2);
+  }
+
+  @Test
+  void fillsBoxes() {
+    var chunk = new Chunk(0, 0, 0);
+
+    assertThat(chunk.fill(0, 0, 0, Chunk.MASK, Chunk.MASK, Chunk.MASK, id(1))).isTrue();
+    assertThat(chunk.fill(2, 3, 4, 5, 6, 7, id(2))).isTrue();
+    assertThat(chunk.fill(2, 3, 4, 5, 6, 7, id(2))).isFalse();
+
+    assertThat(chunk.getBlockCount()).isEqualTo(Chunk.VOLUME);
+    assertThat(chunk.getId(Chunk.index(2, 3, 4))).isEqualTo(id(2));
+    assertThat(chunk.getId(Chunk.index(5, 6, 7))).isEqualTo(id(2));
+    assertThat(chunk.getId(Chunk.index(6, 6, 7))).isEqualTo(id(1));
+  }
+
+  @Test
+  void copyIsNotAffectedByChangesToTheOriginal() {
+    var original = new Chunk(1, 2, 3);
+    original.setId(7, id(1));
+
+    var copy = original.copy();
+    original.setId(7, id(2));
+    original.setId(8, id(3));
+
+    assertThat(copy.getId(7)).isEqualTo(id(1));
+    assertThat(copy.getId(8)).isEqualTo(BlockPalette.AIR);
+    assertThat(copy.getBlockCount()).isEqualTo(1);
+    assertThat(copy.getKey()).isEqualTo(original.getKey());
+    assertThat(original.getId(7)).isEqualTo(id(2));
+  }
+
+  @Test
+  void originalIsNotAffectedByChangesToTheCopy() {
+    var original = new Chunk(0, 0, 0);
+    original.setId(7, id(1));
+
+    var copy = original.copy();
+    copy.fill(0, 0, 0, Chunk.MASK, Chunk.MASK, Chunk.MASK, id(2));
+    for (int i = 0; i < 40; i++) {
+      copy.setId(i, id(10 + i));
+    }
+
+    assertThat(original.getId(7)).isEqualTo(id(1));
+    assertThat(original.getId(8)).isEqualTo(BlockPalette.AIR);
+    assertThat(original.getBitsPerCell()).isEqualTo(4);
+    assertThat(copy.getId(7)).isEqualTo(id(17));
+  }
+
+  @Test
+  void replacingWhatIsNotInTheBoxChangesNothing() {
+    var chunk = new Chunk(0, 0, 0);
+    for (int i = 0; i < 15; i++) {
+      chunk.setId(i, id(i));
+    }
+    int version = chunk.getVersion();
+
+    // The palette is full, so adding the new id would widen the cells.
+    assertThat(chunk.replace(8, 8, 8, Chunk.MASK, Chunk.MASK, Chunk.MASK, id(0), id(100)))
+        .isFalse();
+    assertThat(chunk.replace(0, 0, 0, 3, 0, 0, id(50), id(100))).isFalse();
+
+    assertThat(chunk.getBitsPerCell()).isEqualTo(4);
+    assertThat(chunk.getVersion()).isEqualTo(version);
+    assertThat(chunk.replace(0, 0, 0, 3, 0, 0, id(0), id(100))).isTrue();
+    assertThat(chunk.getId(0)).isEqualTo(id(100));
+    assertThat(chunk.getId(1)).isEqualTo(id(1));
+  }
+
+  /** A distinct palette id per {@code i}. */
+  private static int id(int i) {
+    return BlockPalette.intern(
+        new BlockProperties(
+            Type.SLOPE_HALF, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, i / 1000f));
+  }
+}
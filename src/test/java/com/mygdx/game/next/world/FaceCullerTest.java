@@ -0,0 +1,62 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaceCullerTest {
+  private static final BlockProperties PILLAR =
+      new BlockProperties(
+          Type.PILLAR_CENTER, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+  private static final BlockProperties QUBE =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+
+  private final World world = new World(Chunk.SIZE * 2, 4, Chunk.SIZE);
+
+  @Test
+  void boxesInTheChunkCoverEachOther() {
+    world.setBlockAt(3, 0, 3, PILLAR);
+    world.setBlockAt(4, 0, 3, PILLAR);
+    world.setBlockAt(3, 0, 4, PILLAR.withSides(EnumSet.of(Side.TOP, Side.LEFT)));
+
+    // A real pillar leaves everything around it visible.
+    assertThat(FaceCuller.getVisibleSides(world, 3, 0, 3, PILLAR)).isEqualTo(PILLAR.getSides());
+    // The box in front has no back side, so it does not cover the front.
+    assertThat(boxSides(3, 0, 3))
+        .containsExactlyInAnyOrder(Side.TOP, Side.FRONT, Side.BACK, Side.LEFT);
+  }
+
+  @Test
+  void onlyClosedBoxesCoverTheTop() {
+    world.setBlockAt(3, 0, 3, PILLAR);
+    world.setBlockAt(3, 1, 3, PILLAR.withSides(EnumSet.complementOf(EnumSet.of(Side.FRONT))));
+    world.setBlockAt(3, 2, 3, PILLAR);
+
+    assertThat(boxSides(3, 0, 3)).contains(Side.TOP);
+    assertThat(boxSides(3, 1, 3)).doesNotContain(Side.TOP);
+  }
+
+  @Test
+  void neighboursInOtherChunksKeepTheirShape() {
+    world.setBlockAt(Chunk.MASK, 0, 3, PILLAR);
+    world.setBlockAt(Chunk.SIZE, 0, 3, PILLAR);
+    world.setBlockAt(Chunk.MASK, 0, 5, PILLAR);
+    world.setBlockAt(Chunk.SIZE, 0, 5, QUBE);
+
+    assertThat(boxSides(Chunk.MASK, 0, 3)).contains(Side.RIGHT);
+    assertThat(boxSides(Chunk.MASK, 0, 5)).doesNotContain(Side.RIGHT);
+  }
+
+  private EnumSet<Side> boxSides(int x, int y, int z) {
+    var snapshot = new ChunkSnapshot(world.getChunk(0, 0, 0), world);
+    var properties = world.getProperties(x, y, z);
+    return EnumSet.copyOf(FaceCuller.getVisibleBoxSides(snapshot, x, y, z, properties));
+  }
+}
@@ -0,0 +1,134 @@
+package com.mygdx.game.next.world;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import com.badlogic.gdx.utils.ObjectMap;
+import com.mygdx.game.World;
+import com.mygdx.game.next.blocks.BlockOrientation;
+import com.mygdx.game.next.blocks.BlockProperties;
+import com.mygdx.game.next.blocks.Side;
+import com.mygdx.game.next.blocks.Type;
+import com.mygdx.game.next.shapes.MeshBuffer;
+import org.junit.jupiter.api.Test;
+
+import static com.mygdx.game.next.blocks.Block.S;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShapeInstancesTest {
+  private static final BlockProperties QUBE =
+      new BlockProperties(Type.QUBE, BlockOrientation.NORTH, EnumSet.allOf(Side.class), 0, 1);
+  private static final BlockProperties SLOPE =
+      new BlockProperties(
+          Type.SLOPE_HALF, BlockOrientation.EAST, EnumSet.allOf(Side.class), 0, 1);
+  /** Vertices of a qube with every side visible; there is no bottom side. */
+  private static final int QUBE_VERTICES = 5 * 4;
+
+  private final World world = new World(Chunk.SIZE * 2, 2, Chunk.SIZE);
+
+  @Test
+  void groupsBlocksByShape() {
+    world.setBlockAt(0, 0, 0, QUBE);
+    world.setBlockAt(4, 0, 0, QUBE);
+    world.setBlockAt(20, 1, 4, QUBE);
+    world.setBlockAt(2, 0, 2, SLOPE);
+    world.setBlockAt(6, 0, 6, SLOPE);
+
+    var instances = ShapeInstances.build(world.getChunks(), world, AtlasLayout.UNPACKED);
+
+    assertThat(instances.getGroups().size).isEqualTo(2);
+    assertThat(instances.getInstanceCount()).isEqualTo(5);
+    var qubes = groupWith(instances, QUBE_VERTICES);
+    assertThat(qubes.getInstanceCount()).isEqualTo(3);
+    assertThat(qubes.properties()).isEqualTo(QUBE);
+    assertThat(qubes.offsets())
+        .containsExactlyInAnyOrder(0, 0, 0, 4 * S, 0, 0, 20 * S, S, 4 * S)
+        .hasSize(3 * ShapeInstances.INSTANCE_STRIDE);
+  }
+
+  @Test
+  void blocksWithHiddenFacesFormShapesOfTheirOwn() {
+    world.setBlockAt(0, 0, 0, QUBE);
+    world.setBlockAt(1, 0, 0, QUBE);
+    world.setBlockAt(5, 0, 5, QUBE);
+    world.setBlockAt(5, 1, 5, QUBE);
+    world.setBlockAt(10, 0, 10, QUBE);
+
+    var instances = ShapeInstances.build(world.getChunks(), world, AtlasLayout.UNPACKED);
+
+    // Left and right neighbour each lose one side, the lower one of the stack its top.
+    assertThat(instances.getGroups().size).isEqualTo(4);
+    assertThat(instances.getInstanceCount()).isEqualTo(5);
+    assertThat(groupWith(instances, QUBE_VERTICES).getInstanceCount()).isEqualTo(2);
+    int hidden = 0;
+    for (ShapeInstances.Group group : instances.getGroups()) {
+      if (group.shape().vertexCount() == QUBE_VERTICES - 4) {
+        assertThat(group.getInstanceCount()).isEqualTo(1);
+        hidden++;
+      }
+    }
+    assertThat(hidden).isEqualTo(3);
+  }
+
+  @Test
+  void leavesOutBlocksWithoutVisibleFaces() {
+    world.setBlockAt(3, 0, 3, QUBE.withSides(EnumSet.of(Side.TOP)));
+    world.setBlockAt(3, 1, 3, QUBE);
+
+    var instances = ShapeInstances.build(world.getChunks(), world, AtlasLayout.UNPACKED);
+
+    assertThat(instances.getGroups().size).isEqualTo(1);
+    assertThat(instances.getInstanceCount()).isEqualTo(1);
+  }
+
+  @Test
+  void splitsShapesWithTexturesOnSeveralPages() {
+    var side = new AtlasLayout.Region(0, 0, 0, 0.5f, 0.5f);
+    var top = new AtlasLayout.Region(1, 0.5f, 0.5f, 1, 1);
+    var regions = new ObjectMap<String, AtlasLayout.Region>();
+    regions.put("side.png", side);
+    regions.put("top.png", top);
+    world.setBlockAt(
+        0,
+        0,
+        0,
+        new BlockProperties(
+            Type.QUBE,
+            BlockOrientation.NORTH,
+            EnumSet.allOf(Side.class),
+            0,
+            1,
+            "side.png",
+            Map.of(Side.TOP, "top.png")));
+
+    var instances =
+        ShapeInstances.build(world.getChunks(), world, new AtlasLayout(regions, side));
+
+    assertThat(instances.getGroups().size).isEqualTo(2);
+    assertThat(instances.getInstanceCount()).isEqualTo(1);
+    for (ShapeInstances.Group group : instances.getGroups()) {
+      var region = group.page() == top.page() ? top : side;
+      var shape = group.shape();
+      assertThat(shape.vertexCount()).isEqualTo(group.page() == top.page() ? 4 : 4 * 4);
+      assertThat(shape.indices().length).isEqualTo(shape.vertexCount() / 4 * 6);
+      for (short index : shape.indices()) {
+        assertThat(index).isBetween((short) 0, (short) (shape.vertexCount() - 1));
+      }
+      float[] vertices = shape.vertices();
+      for (int o = 0; o < vertices.length; o += MeshBuffer.STRIDE) {
+        assertThat(vertices[o + 6]).isBetween(region.u0(), region.u1());
+        assertThat(vertices[o + 7]).isBetween(region.v0(), region.v1());
+      }
+      assertThat(group.offsets()).containsExactly(0, 0, 0);
+    }
+  }
+
+  private static ShapeInstances.Group groupWith(ShapeInstances instances, int vertexCount) {
+    for (ShapeInstances.Group group : instances.getGroups()) {
+      if (group.shape().vertexCount() == vertexCount) {
+        return group;
+      }
+    }
+    throw new AssertionError("No group with " + vertexCount + " vertices");
+  }
+}